@@ -0,0 +1,111 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Action;
+import org.gradle.api.NamedDomainObjectProvider;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.ConfigurationPublications;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyScopeConfiguration;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.attributes.Category;
+import org.gradle.api.file.FileCollection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Cross project aggregation through consumable variants.
+ * Each project publishes its own files as a variant and the root project resolves them,
+ * so no project reaches into the tasks or source sets of another project.
+ */
+final class Aggregations {
+
+    static final Attribute<String> KIT_ARTIFACT_ATTRIBUTE = Attribute.of("io.github.jonloucks.gradle.kit.artifact", String.class);
+
+    static final String COVERAGE_DATA = "coverage-data";
+    static final String COVERAGE_CLASSES = "coverage-classes";
+    static final String COVERAGE_SOURCES = "coverage-sources";
+    static final String COVERAGE_VERIFICATION = "coverage-verification";
+    static final String STAGING_REPOSITORY = "staging-repository";
+    static final String STAGING_CHECKSUMS = "staging-checksums";
+
+    /**
+     * Registers a consumable variant of the given artifact type
+     */
+    static void registerElements(Project project, String artifactType, Action<ConfigurationPublications> artifacts) {
+        project.getConfigurations().consumable(getElementsName(artifactType), configuration -> {
+            configureAttributes(project, configuration.getAttributes(), artifactType);
+            artifacts.execute(configuration.getOutgoing());
+        });
+    }
+
+    /**
+     * Resolves the variants of the given artifact type from the subprojects.
+     * Every included subproject is a dependency, those without the variant are skipped at resolution time.
+     */
+    static FileCollection aggregate(Project project, String artifactType, Predicate<String> includeProjectName) {
+        final ConfigurationContainer configurations = project.getConfigurations();
+        final String name = getAggregationName(artifactType);
+
+        if (!configurations.getNames().contains(name)) {
+            final NamedDomainObjectProvider<DependencyScopeConfiguration> dependencies =
+                configurations.dependencyScope(name + "Dependencies", configuration -> {
+                    configuration.getDependencies().addAllLater(project.provider(() ->
+                        getElementsDependencies(project, includeProjectName)));
+                });
+            configurations.resolvable(name, configuration -> {
+                configuration.extendsFrom(dependencies.get());
+                configureAttributes(project, configuration.getAttributes(), artifactType);
+            });
+        }
+
+        return configurations.getByName(name).getIncoming().artifactView(view -> view.setLenient(true)).getFiles();
+    }
+
+    static String getElementsName(String artifactType) {
+        return "kit" + toCamelCase(artifactType) + "Elements";
+    }
+
+    static String getAggregationName(String artifactType) {
+        return "kit" + toCamelCase(artifactType) + "Aggregation";
+    }
+
+    private Aggregations() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    /**
+     * Only the name and path of the subprojects are read, never their configurations
+     */
+    private static List<Dependency> getElementsDependencies(Project project, Predicate<String> includeProjectName) {
+        final List<Dependency> dependencies = new ArrayList<>();
+        for (Project subproject : project.getSubprojects()) {
+            if (includeProjectName.test(subproject.getName())) {
+                dependencies.add(project.getDependencies().project(singletonMap("path", subproject.getPath())));
+            }
+        }
+        return dependencies;
+    }
+
+    private static void configureAttributes(Project project, AttributeContainer attributes, String artifactType) {
+        attributes.attribute(Category.CATEGORY_ATTRIBUTE, project.getObjects().named(Category.class, KIT_CATEGORY));
+        attributes.attribute(KIT_ARTIFACT_ATTRIBUTE, artifactType);
+    }
+
+    private static String toCamelCase(String artifactType) {
+        final StringBuilder builder = new StringBuilder();
+        for (String part : artifactType.split("-")) {
+            if (!part.isEmpty()) {
+                builder.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final String KIT_CATEGORY = "gradle-kit";
+}
@@ -0,0 +1,56 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.util.Locale;
+
+/**
+ * The archive formats of the publisher bundle
+ */
+enum BundleFormat {
+    TAR("tar", "application/x-tar"),
+    TAR_GZ("tar.gz", "application/gzip"),
+    ZIP("zip", "application/zip");
+
+    BundleFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    String getExtension() {
+        return extension;
+    }
+
+    String getMediaType() {
+        return mediaType;
+    }
+
+    static BundleFormat of(String text) {
+        final String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if ("tgz".equals(normalized)) {
+            return TAR_GZ;
+        }
+        for (BundleFormat format : values()) {
+            if (format.extension.equals(normalized)) {
+                return format;
+            }
+        }
+        throw new GradleException("Invalid bundle format: " + text + ".");
+    }
+
+    /**
+     * @return the format matching the file name extension, TAR when the extension is not known
+     */
+    static BundleFormat ofFileName(String fileName) {
+        final String normalized = fileName.toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(".tar.gz") || normalized.endsWith(".tgz")) {
+            return TAR_GZ;
+        } else if (normalized.endsWith(".zip")) {
+            return ZIP;
+        }
+        return TAR;
+    }
+
+    private final String extension;
+    private final String mediaType;
+}
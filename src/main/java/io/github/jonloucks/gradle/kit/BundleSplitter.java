@@ -0,0 +1,77 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits bundle entries into size bounded bundles without splitting a module.
+ * Modules are packed largest first into the first bundle with room, a module larger than the bound gets its own bundle.
+ */
+final class BundleSplitter {
+
+    /**
+     * @return the bundles in a stable order for the same entries
+     */
+    static List<List<Entry>> split(List<Entry> entries, long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        final Map<String, List<Entry>> modules = new TreeMap<>();
+        for (Entry entry : entries) {
+            modules.computeIfAbsent(getModulePath(entry.getPath()), path -> new ArrayList<>()).add(entry);
+        }
+
+        final List<List<Entry>> sortedModules = new ArrayList<>(modules.values());
+        sortedModules.sort(Comparator.comparingLong(BundleSplitter::getSize).reversed());
+
+        final List<List<Entry>> bundles = new ArrayList<>();
+        final List<Long> bundleSizes = new ArrayList<>();
+        for (List<Entry> module : sortedModules) {
+            final long moduleSize = getSize(module);
+            int index = 0;
+            while (index < bundles.size() && bundleSizes.get(index) + moduleSize > maxSize) {
+                index++;
+            }
+            if (index == bundles.size()) {
+                bundles.add(new ArrayList<>());
+                bundleSizes.add(0L);
+            }
+            bundles.get(index).addAll(module);
+            bundleSizes.set(index, bundleSizes.get(index) + moduleSize);
+        }
+        return bundles;
+    }
+
+    /**
+     * @return the group and artifact directory of a repository path, for example 'io/github/example/library'
+     */
+    static String getModulePath(String path) {
+        final int fileIndex = path.lastIndexOf('/');
+        if (fileIndex < 0) {
+            return "";
+        }
+        final String directory = path.substring(0, fileIndex);
+        if (path.startsWith("maven-metadata", fileIndex + 1)) {
+            return directory;
+        }
+        final int versionIndex = directory.lastIndexOf('/');
+        return versionIndex < 0 ? directory : directory.substring(0, versionIndex);
+    }
+
+    private BundleSplitter() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    private static long getSize(List<Entry> module) {
+        long size = 0;
+        for (Entry entry : module) {
+            size += entry.getFile().length();
+        }
+        return size;
+    }
+}
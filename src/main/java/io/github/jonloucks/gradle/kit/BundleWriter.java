@@ -0,0 +1,530 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes the publisher bundle archive.
+ * Compression runs on all cores, tar.gz as independently compressed gzip members
+ * and zip as independently compressed entries, while the archive itself is written in order.
+ * Zip entries are deflated in bounded chunks to temporary files next to the bundle, so heap use
+ * does not grow with the size of the artifacts.
+ * Uncompressed tar content is transferred from the staged files to the bundle with zero-copy transfers.
+ * Archives are reproducible: entries are sorted by path and have a fixed timestamp, owner and permissions.
+ */
+final class BundleWriter {
+
+    /**
+     * A file and its path inside the bundle
+     */
+    static final class Entry {
+        Entry(String path, File file) {
+            this.path = path;
+            this.file = file;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        private final String path;
+        private final File file;
+    }
+
+    static void write(BundleFormat format, List<Entry> entries, File bundleFile) {
+        write(format, entries, bundleFile, true);
+    }
+
+    /**
+     * @param zeroCopy true to transfer uncompressed tar content from file to file without copying it through the heap
+     */
+    static void write(BundleFormat format, List<Entry> unsortedEntries, File bundleFile, boolean zeroCopy) {
+        final List<Entry> entries = new ArrayList<>(unsortedEntries);
+        entries.sort(Comparator.comparing(Entry::getPath));
+        final ExecutorService executor = BundleFormat.TAR == format ? null : Executors.newFixedThreadPool(THREADS);
+        try (FileChannel channel = FileChannel.open(bundleFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            switch (format) {
+                case TAR:
+                    writeTar(entries, outputStream, zeroCopy ? channel : null);
+                    break;
+                case TAR_GZ:
+                    try (ParallelGzipOutputStream gzipStream = new ParallelGzipOutputStream(outputStream, executor)) {
+                        writeTar(entries, gzipStream, null);
+                    }
+                    break;
+                case ZIP:
+                    writeZip(entries, outputStream, executor, bundleFile.getAbsoluteFile().getParentFile().toPath());
+                    break;
+                default:
+                    throw new GradleException("Invalid bundle format: " + format + ".");
+            }
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to create bundle.", thrown);
+        } finally {
+            if (null != executor) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private BundleWriter() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    /**
+     * @param channel the channel the output stream writes to, null when the content must pass through the stream
+     */
+    private static void writeTar(List<Entry> entries, OutputStream outputStream, WritableByteChannel channel)
+        throws IOException {
+        for (Entry entry : entries) {
+            final long size = entry.getFile().length();
+            final byte[] name = entry.getPath().getBytes(UTF_8);
+
+            if (name.length > TAR_NAME_LENGTH && findPrefixSplit(name) < 0) {
+                // GNU long name extension, understood by every tar reader in use today
+                outputStream.write(createTarHeader(LONG_LINK_NAME, name.length + 1, 0, (byte) 'L'));
+                outputStream.write(name);
+                outputStream.write(0);
+                writeTarPadding(outputStream, name.length + 1);
+            }
+            outputStream.write(createTarHeader(name, size, FIXED_TIME / 1000, (byte) '0'));
+            if (null == channel) {
+                Files.copy(entry.getFile().toPath(), outputStream);
+            } else {
+                outputStream.flush();
+                FileTransfers.transfer(entry.getFile().toPath(), size, channel);
+            }
+            writeTarPadding(outputStream, size);
+        }
+        outputStream.write(new byte[TAR_BLOCK_SIZE * 2]);
+    }
+
+    /**
+     * Sizes of 8 GiB and over do not fit the octal size field and are written in the GNU base-256 encoding
+     */
+    static byte[] createTarHeader(byte[] name, long size, long modified, byte type) {
+        final byte[] header = new byte[TAR_BLOCK_SIZE];
+        final int split = name.length > TAR_NAME_LENGTH ? findPrefixSplit(name) : -1;
+        if (split >= 0) {
+            System.arraycopy(name, split + 1, header, 0, name.length - split - 1);
+            System.arraycopy(name, 0, header, 345, split);
+        } else {
+            System.arraycopy(name, 0, header, 0, Math.min(name.length, TAR_NAME_LENGTH));
+        }
+        writeOctal(header, 100, 8, FILE_MODE);
+        writeOctal(header, 108, 8, 0);
+        writeOctal(header, 116, 8, 0);
+        if (size > MAX_TAR_OCTAL_SIZE) {
+            writeBase256(header, 124, 12, size);
+        } else {
+            writeOctal(header, 124, 12, size);
+        }
+        writeOctal(header, 136, 12, modified);
+        header[156] = type;
+        System.arraycopy(USTAR_MAGIC, 0, header, 257, USTAR_MAGIC.length);
+
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        writeOctal(header, 148, 7, checksum);
+        return header;
+    }
+
+    /**
+     * @return the index of the '/' to split a long name into the ustar prefix and name, or -1 if none fits
+     */
+    private static int findPrefixSplit(byte[] name) {
+        for (int i = Math.min(name.length - 1, TAR_PREFIX_LENGTH); i > 0; i--) {
+            if (name[i] == '/' && name.length - i - 1 <= TAR_NAME_LENGTH && name.length - i - 1 > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        final String octal = Long.toOctalString(value);
+        if (octal.length() > length - 1) {
+            throw new GradleException("Bundle entry is too large for tar.");
+        }
+        int position = offset;
+        for (int i = octal.length(); i < length - 1; i++) {
+            header[position++] = '0';
+        }
+        for (int i = 0; i < octal.length(); i++) {
+            header[position++] = (byte) octal.charAt(i);
+        }
+        header[position] = 0;
+    }
+
+    private static void writeBase256(byte[] header, int offset, int length, long value) {
+        header[offset] = (byte) 0x80;
+        long remaining = value;
+        for (int i = offset + length - 1; i > offset; i--) {
+            header[i] = (byte) remaining;
+            remaining >>>= 8;
+        }
+    }
+
+    private static void writeTarPadding(OutputStream outputStream, long size) throws IOException {
+        final int remainder = (int) (size % TAR_BLOCK_SIZE);
+        if (remainder != 0) {
+            outputStream.write(new byte[TAR_BLOCK_SIZE - remainder]);
+        }
+    }
+
+    private static final class ZipData {
+        private ZipData(byte[] name, long crc, long size, int method, Path content, long compressedSize) {
+            this.name = name;
+            this.crc = crc;
+            this.size = size;
+            this.method = method;
+            this.content = content;
+            this.compressedSize = compressedSize;
+        }
+
+        private final byte[] name;
+        private final long crc;
+        private final long size;
+        private final int method;
+        private final Path content;
+        private final long compressedSize;
+        private long offset;
+    }
+
+    /**
+     * @param directory the directory to create the temporary directory of compressed entries in
+     */
+    private static void writeZip(List<Entry> entries, OutputStream outputStream, ExecutorService executor,
+                                 Path directory) throws IOException {
+        if (entries.size() > 0xFFFF) {
+            throw new GradleException("Bundle has too many entries for zip, use tar or tar.gz.");
+        }
+        final Path spoolDirectory = Files.createTempDirectory(directory, "zip-entries");
+        try {
+            writeZipEntries(entries, new CountingOutputStream(outputStream), executor, spoolDirectory);
+        } finally {
+            awaitTermination(executor);
+            deleteSpoolDirectory(spoolDirectory);
+        }
+    }
+
+    private static void writeZipEntries(List<Entry> entries, CountingOutputStream countingStream,
+                                        ExecutorService executor, Path spoolDirectory) throws IOException {
+        final Deque<Future<ZipData>> pending = new ArrayDeque<>();
+        final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+        for (Entry entry : entries) {
+            pending.add(executor.submit(() -> compressZipEntry(entry, spoolDirectory)));
+            if (pending.size() >= MAX_PENDING) {
+                writeZipEntry(countingStream, centralDirectory, await(pending.removeFirst()));
+            }
+        }
+        while (!pending.isEmpty()) {
+            writeZipEntry(countingStream, centralDirectory, await(pending.removeFirst()));
+        }
+
+        final long centralDirectoryOffset = countingStream.count;
+        checkZipLimit(centralDirectoryOffset);
+        centralDirectory.writeTo(countingStream);
+
+        final ByteBuffer end = littleEndian(22);
+        end.putInt(0x06054b50);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) entries.size());
+        end.putShort((short) entries.size());
+        end.putInt(centralDirectory.size());
+        end.putInt((int) centralDirectoryOffset);
+        end.putShort((short) 0);
+        countingStream.write(end.array());
+    }
+
+    /**
+     * Deflates the entry to a temporary file, computing the CRC on the same pass.
+     * When deflating does not make the entry smaller, the temporary file is dropped and the entry is stored.
+     */
+    private static ZipData compressZipEntry(Entry entry, Path spoolDirectory) throws IOException {
+        final Path source = entry.getFile().toPath();
+        final Path compressed = Files.createTempFile(spoolDirectory, "entry", ".deflated");
+        final CRC32 crc = new CRC32();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long size = 0;
+        try (InputStream inputStream = Files.newInputStream(source);
+             OutputStream outputStream = new DeflaterOutputStream(Files.newOutputStream(compressed), deflater,
+                 ZIP_CHUNK_SIZE)) {
+            final byte[] buffer = new byte[ZIP_CHUNK_SIZE];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, count);
+                outputStream.write(buffer, 0, count);
+                size += count;
+            }
+        } finally {
+            deflater.end();
+        }
+        final byte[] name = entry.getPath().getBytes(UTF_8);
+        final long compressedSize = Files.size(compressed);
+        if (compressedSize >= size) {
+            Files.delete(compressed);
+            return new ZipData(name, crc.getValue(), size, 0, source, size);
+        }
+        return new ZipData(name, crc.getValue(), size, 8, compressed, compressedSize);
+    }
+
+    private static void writeZipEntry(CountingOutputStream outputStream, ByteArrayOutputStream centralDirectory,
+                                      ZipData data) throws IOException {
+        data.offset = outputStream.count;
+        checkZipLimit(data.offset + data.compressedSize);
+        checkZipLimit(data.size);
+        final int dosTime = toDosTime(FIXED_TIME);
+
+        final ByteBuffer local = littleEndian(30);
+        local.putInt(0x04034b50);
+        local.putShort((short) 20);
+        local.putShort((short) UTF8_FLAG);
+        local.putShort((short) data.method);
+        local.putInt(dosTime);
+        local.putInt((int) data.crc);
+        local.putInt((int) data.compressedSize);
+        local.putInt((int) data.size);
+        local.putShort((short) data.name.length);
+        local.putShort((short) 0);
+        outputStream.write(local.array());
+        outputStream.write(data.name);
+        Files.copy(data.content, outputStream);
+        if (8 == data.method) {
+            Files.delete(data.content);
+        }
+
+        final ByteBuffer central = littleEndian(46);
+        central.putInt(0x02014b50);
+        central.putShort((short) (UNIX_HOST << 8 | 20));
+        central.putShort((short) 20);
+        central.putShort((short) UTF8_FLAG);
+        central.putShort((short) data.method);
+        central.putInt(dosTime);
+        central.putInt((int) data.crc);
+        central.putInt((int) data.compressedSize);
+        central.putInt((int) data.size);
+        central.putShort((short) data.name.length);
+        central.putShort((short) 0);
+        central.putShort((short) 0);
+        central.putShort((short) 0);
+        central.putShort((short) 0);
+        central.putInt((UNIX_REGULAR_FILE | FILE_MODE) << 16);
+        central.putInt((int) data.offset);
+        centralDirectory.write(central.array());
+        centralDirectory.write(data.name);
+    }
+
+    private static int toDosTime(long epochMillis) {
+        final LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16 |
+            time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private static void checkZipLimit(long value) {
+        if (value >= 0xFFFFFFFFL) {
+            throw new GradleException("Bundle is too large for zip, use tar or tar.gz.");
+        }
+    }
+
+    private static ByteBuffer littleEndian(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Compresses fixed size blocks in parallel, each as its own gzip member.
+     * Concatenated members are a valid gzip stream for every gzip reader.
+     */
+    private static final class ParallelGzipOutputStream extends OutputStream {
+        private ParallelGzipOutputStream(OutputStream outputStream, ExecutorService executor) {
+            this.outputStream = outputStream;
+            this.executor = executor;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            block[count++] = (byte) b;
+            if (count == block.length) {
+                submitBlock();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                final int chunk = Math.min(remaining, block.length - count);
+                System.arraycopy(bytes, position, block, count, chunk);
+                count += chunk;
+                position += chunk;
+                remaining -= chunk;
+                if (count == block.length) {
+                    submitBlock();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (count > 0) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                outputStream.write(await(pending.removeFirst()));
+            }
+            outputStream.flush();
+        }
+
+        private void submitBlock() throws IOException {
+            final byte[] input = block;
+            final int length = count;
+            pending.add(executor.submit(() -> compress(input, length)));
+            block = new byte[GZIP_BLOCK_SIZE];
+            count = 0;
+            if (pending.size() >= MAX_PENDING) {
+                outputStream.write(await(pending.removeFirst()));
+            }
+        }
+
+        private static byte[] compress(byte[] input, int length) throws IOException {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed, 64 * 1024)) {
+                gzipStream.write(input, 0, length);
+            }
+            return compressed.toByteArray();
+        }
+
+        private final OutputStream outputStream;
+        private final ExecutorService executor;
+        private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        private byte[] block = new byte[GZIP_BLOCK_SIZE];
+        private int count;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        private long count;
+    }
+
+    /**
+     * Waits for cancelled compressions to stop before their temporary files are deleted
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteSpoolDirectory(Path spoolDirectory) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.list(spoolDirectory)) {
+            files = paths.collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(spoolDirectory);
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Bundle creation interrupted.", thrown);
+        } catch (ExecutionException thrown) {
+            if (thrown.getCause() instanceof IOException) {
+                throw (IOException) thrown.getCause();
+            }
+            throw new GradleException("Unable to create bundle.", thrown.getCause());
+        }
+    }
+
+    /**
+     * 1980-02-01T00:00:00Z, the same constant Gradle uses for reproducible archives, valid in tar and zip
+     */
+    private static final long FIXED_TIME = 318211200000L;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_PENDING = THREADS * 2;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int GZIP_BLOCK_SIZE = 1024 * 1024;
+    private static final int ZIP_CHUNK_SIZE = 64 * 1024;
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int TAR_NAME_LENGTH = 100;
+    private static final int TAR_PREFIX_LENGTH = 155;
+    private static final long MAX_TAR_OCTAL_SIZE = 077777777777L;
+    private static final int FILE_MODE = 0644;
+    private static final int UNIX_HOST = 3;
+    private static final int UNIX_REGULAR_FILE = 0100000;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final byte[] USTAR_MAGIC = {'u', 's', 't', 'a', 'r', 0, '0', '0'};
+    private static final byte[] LONG_LINK_NAME = "././@LongLink".getBytes(UTF_8);
+}
@@ -0,0 +1,506 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copies of class coverage, detached from the analyzer so they can be stored and read back.
+ * Counters and lines are copied as they are, so a restored class reports exactly like a freshly analyzed one.
+ */
+final class CachedCoverage {
+
+    /**
+     * Counter of missed and covered items with the JaCoCo semantics
+     */
+    static final class Counter implements ICounter {
+        Counter(int missed, int covered) {
+            this.missed = missed;
+            this.covered = covered;
+        }
+
+        static Counter of(ICounter counter) {
+            return counter instanceof Counter ? (Counter) counter
+                : new Counter(counter.getMissedCount(), counter.getCoveredCount());
+        }
+
+        @Override
+        public double getValue(CounterValue value) {
+            switch (value) {
+                case TOTALCOUNT:
+                    return getTotalCount();
+                case MISSEDCOUNT:
+                    return getMissedCount();
+                case COVEREDCOUNT:
+                    return getCoveredCount();
+                case MISSEDRATIO:
+                    return getMissedRatio();
+                case COVEREDRATIO:
+                    return getCoveredRatio();
+                default:
+                    throw new IllegalArgumentException("Unknown counter value " + value + ".");
+            }
+        }
+
+        @Override
+        public int getTotalCount() {
+            return missed + covered;
+        }
+
+        @Override
+        public int getCoveredCount() {
+            return covered;
+        }
+
+        @Override
+        public int getMissedCount() {
+            return missed;
+        }
+
+        @Override
+        public double getCoveredRatio() {
+            return (double) covered / (missed + covered);
+        }
+
+        @Override
+        public double getMissedRatio() {
+            return (double) missed / (missed + covered);
+        }
+
+        @Override
+        public int getStatus() {
+            int status = covered > 0 ? FULLY_COVERED : EMPTY;
+            if (missed > 0) {
+                status |= NOT_COVERED;
+            }
+            return status;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ICounter)) {
+                return false;
+            }
+            final ICounter counter = (ICounter) other;
+            return missed == counter.getMissedCount() && covered == counter.getCoveredCount();
+        }
+
+        @Override
+        public int hashCode() {
+            return missed ^ Integer.rotateLeft(covered, 16);
+        }
+
+        @Override
+        public String toString() {
+            return "Counter[" + missed + "/" + covered + "]";
+        }
+
+        private final int missed;
+        private final int covered;
+    }
+
+    static final class Line implements ILine {
+        Line(Counter instructions, Counter branches) {
+            this.instructions = instructions;
+            this.branches = branches;
+        }
+
+        @Override
+        public ICounter getInstructionCounter() {
+            return instructions;
+        }
+
+        @Override
+        public ICounter getBranchCounter() {
+            return branches;
+        }
+
+        @Override
+        public int getStatus() {
+            return instructions.getStatus() | branches.getStatus();
+        }
+
+        private final Counter instructions;
+        private final Counter branches;
+    }
+
+    /**
+     * Counters and lines shared by classes and methods
+     */
+    abstract static class SourceNode implements ISourceNode {
+        SourceNode(String name, Counter[] counters, int firstLine, Line[] lines) {
+            this.name = name;
+            this.counters = counters;
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public ICounter getInstructionCounter() {
+            return getCounter(CounterEntity.INSTRUCTION);
+        }
+
+        @Override
+        public ICounter getBranchCounter() {
+            return getCounter(CounterEntity.BRANCH);
+        }
+
+        @Override
+        public ICounter getLineCounter() {
+            return getCounter(CounterEntity.LINE);
+        }
+
+        @Override
+        public ICounter getComplexityCounter() {
+            return getCounter(CounterEntity.COMPLEXITY);
+        }
+
+        @Override
+        public ICounter getMethodCounter() {
+            return getCounter(CounterEntity.METHOD);
+        }
+
+        @Override
+        public ICounter getClassCounter() {
+            return getCounter(CounterEntity.CLASS);
+        }
+
+        @Override
+        public ICounter getCounter(CounterEntity entity) {
+            return counters[entity.ordinal()];
+        }
+
+        @Override
+        public boolean containsCode() {
+            return getInstructionCounter().getTotalCount() != 0;
+        }
+
+        @Override
+        public ICoverageNode getPlainCopy() {
+            final CoverageNodeImpl copy = new CoverageNodeImpl(getElementType(), getName());
+            copy.increment(this);
+            return copy;
+        }
+
+        @Override
+        public int getFirstLine() {
+            return lines.length == 0 ? UNKNOWN_LINE : firstLine;
+        }
+
+        @Override
+        public int getLastLine() {
+            return lines.length == 0 ? UNKNOWN_LINE : firstLine + lines.length - 1;
+        }
+
+        @Override
+        public ILine getLine(int nr) {
+            final int index = nr - firstLine;
+            return index < 0 || index >= lines.length ? EMPTY_LINE : lines[index];
+        }
+
+        void writeNode(DataOutput output) throws IOException {
+            for (Counter counter : counters) {
+                writeCounter(output, counter);
+            }
+            writeVarInt(output, lines.length);
+            if (lines.length > 0) {
+                writeVarInt(output, firstLine);
+                for (Line line : lines) {
+                    writeCounter(output, line.instructions);
+                    writeCounter(output, line.branches);
+                }
+            }
+        }
+
+        private final String name;
+        private final Counter[] counters;
+        private final int firstLine;
+        private final Line[] lines;
+    }
+
+    static final class MethodNode extends SourceNode implements IMethodCoverage {
+        private MethodNode(String name, String desc, String signature, Counter[] counters, int firstLine, Line[] lines) {
+            super(name, counters, firstLine, lines);
+            this.desc = desc;
+            this.signature = signature;
+        }
+
+        @Override
+        public ElementType getElementType() {
+            return ElementType.METHOD;
+        }
+
+        @Override
+        public String getDesc() {
+            return desc;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        private final String desc;
+        private final String signature;
+    }
+
+    static final class ClassNode extends SourceNode implements IClassCoverage {
+        private ClassNode(String name, long id, boolean noMatch, String signature, String superName,
+                      String[] interfaceNames, String sourceFileName, List<IMethodCoverage> methods,
+                      Counter[] counters, int firstLine, Line[] lines) {
+            super(name, counters, firstLine, lines);
+            this.id = id;
+            this.noMatch = noMatch;
+            this.signature = signature;
+            this.superName = superName;
+            this.interfaceNames = interfaceNames;
+            this.sourceFileName = sourceFileName;
+            this.methods = Collections.unmodifiableList(methods);
+        }
+
+        /**
+         * @return a detached copy of the coverage of a class
+         */
+        static ClassNode of(IClassCoverage coverage) {
+            final List<IMethodCoverage> methods = new ArrayList<>();
+            for (IMethodCoverage method : coverage.getMethods()) {
+                methods.add(new MethodNode(method.getName(), method.getDesc(), method.getSignature(),
+                    copyCounters(method), firstLineOf(method), copyLines(method)));
+            }
+            final String[] interfaceNames = coverage.getInterfaceNames();
+            return new ClassNode(coverage.getName(), coverage.getId(), coverage.isNoMatch(), coverage.getSignature(),
+                coverage.getSuperName(), null == interfaceNames ? new String[0] : interfaceNames.clone(),
+                coverage.getSourceFileName(), methods, copyCounters(coverage), firstLineOf(coverage),
+                copyLines(coverage));
+        }
+
+        /**
+         * @return the same coverage with another no match state, which depends on the execution data only
+         */
+        ClassNode withNoMatch(boolean noMatch) {
+            if (noMatch == this.noMatch) {
+                return this;
+            }
+            return new ClassNode(getName(), id, noMatch, signature, superName, interfaceNames, sourceFileName, methods,
+                super.counters, super.firstLine, super.lines);
+        }
+
+        @Override
+        public ElementType getElementType() {
+            return ElementType.CLASS;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isNoMatch() {
+            return noMatch;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public String getSuperName() {
+            return superName;
+        }
+
+        @Override
+        public String[] getInterfaceNames() {
+            return interfaceNames.clone();
+        }
+
+        @Override
+        public String getPackageName() {
+            final int index = getName().lastIndexOf('/');
+            return index < 0 ? "" : getName().substring(0, index);
+        }
+
+        @Override
+        public String getSourceFileName() {
+            return sourceFileName;
+        }
+
+        @Override
+        public Collection<IMethodCoverage> getMethods() {
+            return methods;
+        }
+
+        void write(DataOutput output) throws IOException {
+            output.writeUTF(getName());
+            output.writeLong(id);
+            output.writeBoolean(noMatch);
+            writeNullable(output, signature);
+            writeNullable(output, superName);
+            writeVarInt(output, interfaceNames.length);
+            for (String interfaceName : interfaceNames) {
+                output.writeUTF(interfaceName);
+            }
+            writeNullable(output, sourceFileName);
+            writeNode(output);
+            writeVarInt(output, methods.size());
+            for (IMethodCoverage method : methods) {
+                output.writeUTF(method.getName());
+                output.writeUTF(method.getDesc());
+                writeNullable(output, method.getSignature());
+                ((MethodNode) method).writeNode(output);
+            }
+        }
+
+        static ClassNode read(DataInput input) throws IOException {
+            final String name = input.readUTF();
+            final long id = input.readLong();
+            final boolean noMatch = input.readBoolean();
+            final String signature = readNullable(input);
+            final String superName = readNullable(input);
+            final String[] interfaceNames = new String[readVarInt(input)];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = input.readUTF();
+            }
+            final String sourceFileName = readNullable(input);
+            final Counter[] counters = readCounters(input);
+            final Line[] lines = new Line[readVarInt(input)];
+            final int firstLine = readLines(input, lines);
+            final List<IMethodCoverage> methods = new ArrayList<>();
+            final int methodCount = readVarInt(input);
+            for (int i = 0; i < methodCount; i++) {
+                final String methodName = input.readUTF();
+                final String desc = input.readUTF();
+                final String methodSignature = readNullable(input);
+                final Counter[] methodCounters = readCounters(input);
+                final Line[] methodLines = new Line[readVarInt(input)];
+                final int methodFirstLine = readLines(input, methodLines);
+                methods.add(new MethodNode(methodName, desc, methodSignature, methodCounters, methodFirstLine, methodLines));
+            }
+            return new ClassNode(name, id, noMatch, signature, superName, interfaceNames, sourceFileName, methods,
+                counters, firstLine, lines);
+        }
+
+        private final long id;
+        private final boolean noMatch;
+        private final String signature;
+        private final String superName;
+        private final String[] interfaceNames;
+        private final String sourceFileName;
+        private final List<IMethodCoverage> methods;
+    }
+
+    /**
+     * Unsigned LEB128, counts and line numbers are mostly small
+     */
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int next = input.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer.");
+    }
+
+    private CachedCoverage() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    private static Counter[] copyCounters(ICoverageNode node) {
+        final ICoverageNode.CounterEntity[] entities = ICoverageNode.CounterEntity.values();
+        final Counter[] counters = new Counter[entities.length];
+        for (ICoverageNode.CounterEntity entity : entities) {
+            counters[entity.ordinal()] = Counter.of(node.getCounter(entity));
+        }
+        return counters;
+    }
+
+    private static int firstLineOf(ISourceNode node) {
+        return node.getFirstLine() == ISourceNode.UNKNOWN_LINE ? 0 : node.getFirstLine();
+    }
+
+    private static Line[] copyLines(ISourceNode node) {
+        if (node.getFirstLine() == ISourceNode.UNKNOWN_LINE) {
+            return new Line[0];
+        }
+        final Line[] lines = new Line[node.getLastLine() - node.getFirstLine() + 1];
+        for (int i = 0; i < lines.length; i++) {
+            final ILine line = node.getLine(node.getFirstLine() + i);
+            lines[i] = new Line(Counter.of(line.getInstructionCounter()), Counter.of(line.getBranchCounter()));
+        }
+        return lines;
+    }
+
+    private static void writeCounter(DataOutput output, Counter counter) throws IOException {
+        writeVarInt(output, counter.missed);
+        writeVarInt(output, counter.covered);
+    }
+
+    private static Counter readCounter(DataInput input) throws IOException {
+        final int missed = readVarInt(input);
+        final int covered = readVarInt(input);
+        return missed == 0 && covered == 0 ? EMPTY_COUNTER : new Counter(missed, covered);
+    }
+
+    private static Counter[] readCounters(DataInput input) throws IOException {
+        final Counter[] counters = new Counter[ICoverageNode.CounterEntity.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = readCounter(input);
+        }
+        return counters;
+    }
+
+    private static int readLines(DataInput input, Line[] lines) throws IOException {
+        if (lines.length == 0) {
+            return 0;
+        }
+        final int firstLine = readVarInt(input);
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new Line(readCounter(input), readCounter(input));
+        }
+        return firstLine;
+    }
+
+    private static void writeNullable(DataOutput output, String text) throws IOException {
+        output.writeBoolean(null != text);
+        if (null != text) {
+            output.writeUTF(text);
+        }
+    }
+
+    private static String readNullable(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static final Counter EMPTY_COUNTER = new Counter(0, 0);
+    private static final ILine EMPTY_LINE = new Line(EMPTY_COUNTER, EMPTY_COUNTER);
+}
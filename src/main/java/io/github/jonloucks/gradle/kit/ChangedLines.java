@@ -0,0 +1,116 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The lines added or modified since a base ref, read from a local 'git diff' without context lines
+ */
+final class ChangedLines {
+
+    /**
+     * Changes of the working tree since the merge base of the base ref and HEAD
+     *
+     * @param repositoryDirectory the directory the returned paths are relative to
+     * @param baseRef             the branch, tag or commit the changes are compared with
+     * @return the changed lines of each Java source file, keyed by its path relative to the repository directory
+     */
+    static Map<String, BitSet> read(File repositoryDirectory, String baseRef) {
+        final File validDirectory = nullCheck(repositoryDirectory, "Repository directory must be present.");
+        final String validRef = nullCheck(baseRef, "Base ref must be present.");
+        final String mergeBaseFailure = "Unable to find the merge base of " + validRef + " and HEAD. " +
+            "Fetch " + validRef + " and the history since it, e.g. 'fetch-depth: 0' for actions/checkout, " +
+            "or select another ref with KIT_COVERAGE_DIFF_BASE.";
+        final List<String> mergeBase = git(validDirectory, mergeBaseFailure, "merge-base", validRef, "HEAD");
+        if (mergeBase.isEmpty()) {
+            throw new GradleException(mergeBaseFailure);
+        }
+        return parse(git(validDirectory, "Unable to diff against " + validRef + ".", "diff", "--unified=0",
+            "--no-color", "--no-ext-diff", "--relative", mergeBase.get(0).trim(), "--", "*.java"));
+    }
+
+    /**
+     * @return the added or modified lines of each file of a unified diff, deleted files are left out
+     */
+    static Map<String, BitSet> parse(List<String> diff) {
+        final Map<String, BitSet> changes = new TreeMap<>();
+        BitSet current = null;
+        String previous = "";
+        for (String line : nullCheck(diff, "Diff must be present.")) {
+            final boolean header = previous.startsWith("--- ") && line.startsWith("+++ ");
+            previous = line;
+            if (header) {
+                final String path = line.substring(4);
+                current = path.startsWith("b/") ? changes.computeIfAbsent(path.substring(2), p -> new BitSet()) : null;
+                continue;
+            }
+            final Matcher hunk = HUNK.matcher(line);
+            if (null != current && hunk.lookingAt()) {
+                final int first = Integer.parseInt(hunk.group(1));
+                final int count = null == hunk.group(2) ? 1 : Integer.parseInt(hunk.group(2));
+                current.set(first, first + count);
+            }
+        }
+        changes.values().removeIf(BitSet::isEmpty);
+        return changes;
+    }
+
+    private ChangedLines() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    /**
+     * Standard error is kept apart from the output, so warnings never reach the parsed lines
+     *
+     * @param failure the message of the exception thrown when git fails, followed by the standard error of git
+     */
+    private static List<String> git(File directory, String failure, String... arguments) {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        File errorFile = null;
+        try {
+            errorFile = File.createTempFile("kit-git", ".err");
+            final Process process = new ProcessBuilder(command).directory(directory)
+                .redirectError(errorFile).start();
+            final List<String> output = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+                for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+                    output.add(line);
+                }
+            }
+            if (process.waitFor() != 0) {
+                final List<String> error = Files.readAllLines(errorFile.toPath(), UTF_8);
+                throw new GradleException(failure + "\n" + String.join("\n", error));
+            }
+            return output;
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to run git in " + directory + ".", thrown);
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+            throw new GradleException(failure, thrown);
+        } finally {
+            if (null != errorFile && !errorFile.delete()) {
+                errorFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static final Pattern HUNK = Pattern.compile("@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+}
@@ -0,0 +1,142 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Creates the Maven repository checksum files of an artifact.
+ * The artifact is read once and every digest is fed from the same buffer.
+ */
+final class Checksums {
+
+    /**
+     * The checksum files written next to each artifact
+     */
+    enum Algorithm {
+        MD5("MD5", "md5"),
+        SHA1("SHA-1", "sha1"),
+        SHA256("SHA-256", "sha256"),
+        SHA512("SHA-512", "sha512");
+
+        Algorithm(String digestName, String extension) {
+            this.digestName = digestName;
+            this.extension = extension;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+
+        MessageDigest createDigest() {
+            try {
+                return MessageDigest.getInstance(digestName);
+            } catch (NoSuchAlgorithmException thrown) {
+                throw new GradleException("Unable to generate checksums.", thrown);
+            }
+        }
+
+        private final String digestName;
+        private final String extension;
+    }
+
+    static void create(File file) {
+        create(file, file);
+    }
+
+    /**
+     * Creates the checksum files of an artifact at another location
+     *
+     * @param file the artifact to hash
+     * @param checksumFile the base path of the checksum files, an extension is appended for each algorithm
+     */
+    static void create(File file, File checksumFile) {
+        final File validFile = nullCheck(file, "File must be present.");
+        final File validChecksumFile = nullCheck(checksumFile, "Checksum file must be present.");
+        final Algorithm[] algorithms = Algorithm.values();
+        try {
+            final byte[][] digests = digest(validFile, algorithms);
+            for (int i = 0; i < algorithms.length; i++) {
+                writeHex(getChecksumFile(validChecksumFile, algorithms[i]), digests[i]);
+            }
+        } catch (Exception thrown) {
+            throw new GradleException("Unable to generate checksums.", thrown);
+        }
+    }
+
+    /**
+     * Reads the file once, updating every digest from each filled buffer
+     */
+    static byte[][] digest(File file, Algorithm... algorithms) throws IOException {
+        final MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = algorithms[i].createDigest();
+        }
+
+        // heap backed so each digest reads the array directly, MessageDigest copies direct buffers in small chunks
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final byte[] bytes = buffer.array();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            int count;
+            while ((count = channel.read(buffer)) != -1) {
+                for (MessageDigest digest : digests) {
+                    digest.update(bytes, 0, count);
+                }
+                buffer.clear();
+            }
+        }
+
+        final byte[][] results = new byte[algorithms.length][];
+        for (int i = 0; i < digests.length; i++) {
+            results[i] = digests[i].digest();
+        }
+        return results;
+    }
+
+    static File getChecksumFile(File checksumFile, Algorithm algorithm) {
+        return new File(checksumFile.getAbsolutePath() + "." + algorithm.getExtension());
+    }
+
+    static boolean isChecksumFileName(String name) {
+        for (Algorithm algorithm : Algorithm.values()) {
+            if (name.endsWith("." + algorithm.getExtension())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String toHex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            final int value = bytes[i] & 0xFF;
+            chars[j++] = HEX_DIGITS[value >>> 4];
+            chars[j++] = HEX_DIGITS[value & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private Checksums() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    private static void writeHex(File outputFile, byte[] digestBytes) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(outputFile.toPath())) {
+            outputStream.write(toHex(digestBytes).getBytes(US_ASCII));
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+}
@@ -0,0 +1,107 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.Checksums.Algorithm;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Creates the checksum files of staged artifacts into a separate directory, mirroring the staging layout.
+ * Files are hashed in parallel and only new or changed files are processed.
+ */
+@CacheableTask
+abstract class ChecksumsTask extends DefaultTask {
+
+    @Incremental
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceFiles();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getChecksumsDirectory();
+
+    @Inject
+    public abstract WorkerExecutor getWorkerExecutor();
+
+    @Inject
+    public abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void createChecksums(InputChanges inputChanges) {
+        final File checksumsDirectory = getChecksumsDirectory().get().getAsFile();
+        if (!inputChanges.isIncremental()) {
+            // stale checksums from an unknown previous state
+            getFileSystemOperations().delete(spec -> spec.delete(checksumsDirectory));
+        }
+
+        final WorkQueue workQueue = getWorkerExecutor().noIsolation();
+        for (FileChange change : inputChanges.getFileChanges(getSourceFiles())) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            final File checksumFile = new File(checksumsDirectory, change.getNormalizedPath());
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                deleteChecksums(checksumFile);
+            } else {
+                workQueue.submit(ChecksumsWorkAction.class, parameters -> {
+                    parameters.getFile().set(change.getFile());
+                    parameters.getChecksumFile().set(checksumFile);
+                });
+            }
+        }
+    }
+
+    interface ChecksumsParameters extends WorkParameters {
+        RegularFileProperty getFile();
+
+        RegularFileProperty getChecksumFile();
+    }
+
+    abstract static class ChecksumsWorkAction implements WorkAction<ChecksumsParameters> {
+        @Override
+        public void execute() {
+            final File checksumFile = getParameters().getChecksumFile().get().getAsFile();
+            try {
+                Files.createDirectories(checksumFile.getParentFile().toPath());
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to generate checksums.", thrown);
+            }
+            Checksums.create(getParameters().getFile().get().getAsFile(), checksumFile);
+        }
+    }
+
+    private static void deleteChecksums(File checksumFile) {
+        for (Algorithm algorithm : Algorithm.values()) {
+            try {
+                Files.deleteIfExists(Checksums.getChecksumFile(checksumFile, algorithm).toPath());
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to delete checksums.", thrown);
+            }
+        }
+    }
+}
@@ -23,6 +23,14 @@ final class Configs {
         .description("Enable logging to provide more visibility.") //
     );
     
+    static final Variant<Boolean> KIT_PROFILE_ENABLED = createVariant((b,p) -> b //
+        .name("Kit Profile Enabled") //
+        .keys("KIT_PROFILE_ENABLED", "kit.profile.enabled") //
+        .of(p.ofBoolean()) //
+        .fallback(() -> false) //
+        .description("Record the configuration cost of each kit applier.") //
+    );
+    
     static final Variant<JavaLanguageVersion> KIT_JAVA_COMPILER_VERSION = createVariant((b,p) -> b //
         .name("Kit Java Compiler Version") //
         .keys("KIT_JAVA_COMPILER_VERSION", "kit.java.compiler.version") //
@@ -101,6 +109,68 @@ final class Configs {
         .description("Select the password to publish an OSSRH bundle.") //
     );
     
+    static final Variant<BundleFormat> KIT_BUNDLE_FORMAT = createVariant((b,p) -> b //
+        .name("Kit Bundle Format") //
+        .keys("KIT_BUNDLE_FORMAT", "kit.bundle.format") //
+        .of(ofBundleFormat(p)) //
+        .fallback(() -> BundleFormat.TAR) //
+        .description("Select the archive format of the OSSRH bundle.") //
+    );
+    
+    static final Variant<Boolean> KIT_STAGING_HARD_LINKS = createVariant((b,p) -> b //
+        .name("Kit Staging Hard Links") //
+        .keys("KIT_STAGING_HARD_LINKS", "kit.staging.hard.links") //
+        .of(p.ofBoolean()) //
+        .fallback(() -> false) //
+        .description("Hard link staged artifacts instead of copying them where the filesystem allows it.") //
+    );
+    
+    static final Variant<Integer> KIT_BUNDLE_SPLIT_SIZE = createVariant((b,p) -> b //
+        .name("Kit Bundle Split Size") //
+        .keys("KIT_BUNDLE_SPLIT_SIZE", "kit.bundle.split.size") //
+        .of(ofPositiveInteger(p, "bundle split size")) //
+        .description("Split the OSSRH bundle by module into bundles of at most this many MiB.") //
+    );
+    
+    static final Variant<Integer> KIT_UPLOAD_PARALLELISM = createVariant((b,p) -> b //
+        .name("Kit Upload Parallelism") //
+        .keys("KIT_UPLOAD_PARALLELISM", "kit.upload.parallelism") //
+        .of(ofPositiveInteger(p, "upload parallelism")) //
+        .fallback(() -> 4) //
+        .description("Select the maximum number of concurrent OSSRH bundle uploads.") //
+    );
+    
+    static final Variant<Integer> KIT_COVERAGE_PARALLELISM = createVariant((b,p) -> b //
+        .name("Kit Coverage Parallelism") //
+        .keys("KIT_COVERAGE_PARALLELISM", "kit.coverage.parallelism") //
+        .of(ofPositiveInteger(p, "coverage parallelism")) //
+        .fallback(() -> Runtime.getRuntime().availableProcessors()) //
+        .description("Select the number of threads analyzing the aggregated coverage.") //
+    );
+    
+    static final Variant<String> KIT_COVERAGE_AGENT_INCLUDES = createVariant((b,p) -> b //
+        .name("Kit Coverage Agent Includes") //
+        .keys("KIT_COVERAGE_AGENT_INCLUDES", "kit.coverage.agent.includes") //
+        .of(p.ofString()) //
+        .fallback(() -> "auto") //
+        .description("Select the classes instrumented by the JaCoCo agent of the tests.") //
+    );
+    
+    static final Variant<Boolean> KIT_COVERAGE_PER_MODULE = createVariant((b,p) -> b //
+        .name("Kit Coverage Per Module") //
+        .keys("KIT_COVERAGE_PER_MODULE", "kit.coverage.per.module") //
+        .of(p.ofBoolean()) //
+        .fallback(() -> false) //
+        .description("Verify the coverage of each module on its own instead of the aggregated coverage.") //
+    );
+    
+    static final Variant<String> KIT_COVERAGE_DIFF_BASE = createVariant((b,p) -> b //
+        .name("Kit Coverage Diff Base") //
+        .keys("KIT_COVERAGE_DIFF_BASE", "kit.coverage.diff.base") //
+        .of(p.ofString()) //
+        .description("Select the git ref the changed lines coverage is compared with.") //
+    );
+    
     static final Variant<String> KIT_GPG_SECRET_KEY = createVariant((b,p) -> b //
         .name("Kit OSSRH GPG Secret Key") //
         .keys("KIT_OSSRH_GPG_SECRET_KEY", "OSSRH_GPG_SECRET_KEY", "kit.ossrh.gpg.secret.key") //
@@ -115,6 +185,14 @@ final class Configs {
         .description("Select the GPG secret key password for signing.") //
     );
     
+    static final Variant<Boolean> KIT_SIGNING_CACHE_ENABLED = createVariant((b,p) -> b //
+        .name("Kit Signing Cache Enabled") //
+        .keys("KIT_SIGNING_CACHE_ENABLED", "kit.signing.cache.enabled") //
+        .of(p.ofBoolean()) //
+        .fallback(() -> true) //
+        .description("Reuse the signatures of artifacts whose content and signing key are unchanged.") //
+    );
+    
     static final Variant<String[]> KIT_INCLUDE_TAGS = createVariant((b,p) -> b //
         .name("Kit Java Test Include Tags") //
         .keys("KIT_INCLUDE_TAGS", "kit.include.tags", "includeTags") //
@@ -155,6 +233,26 @@ final class Configs {
         return parsers.ofTrimAndSkipEmpty(parsers.string(JavaLanguageVersion::of));
     }
     
+    private static Function<CharSequence, Optional<BundleFormat>> ofBundleFormat(Parsers parsers) {
+        return parsers.ofTrimAndSkipEmpty(parsers.string(BundleFormat::of));
+    }
+    
+    private static Function<CharSequence, Optional<Integer>> ofPositiveInteger(Parsers parsers, String name) {
+        return parsers.ofTrimAndSkipEmpty(parsers.string(text -> parsePositiveInteger(text, name)));
+    }
+    
+    private static Integer parsePositiveInteger(String text, String name) {
+        try {
+            final int value = Integer.parseInt(text.trim());
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new GradleException("Invalid " + name + ": " + text + ".");
+    }
+    
     private static String parseSecretKey(CharSequence text) {
         final CharSequence validText = textCheck(text);
         final String string = validText.toString();
@@ -0,0 +1,137 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.SourceSet;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Class name patterns limiting the JaCoCo agent to the classes of a module.
+ * Without them the agent instruments every class loaded by the test JVM, including libraries and generated mocks.
+ */
+final class CoverageAgentScope {
+
+    /**
+     * Derives the includes from the top most packages with sources
+     *
+     * @return the patterns, empty when a source is in the default package and nothing can be excluded
+     */
+    static List<String> toIncludes(Collection<File> sourceDirectories) {
+        final TreeSet<String> packages = new TreeSet<>();
+        for (File sourceDirectory : nullCheck(sourceDirectories, "Source directories must be present.")) {
+            if (hasSources(sourceDirectory)) {
+                return Collections.emptyList();
+            }
+            collectPackages(sourceDirectory, "", packages);
+        }
+        final List<String> includes = new ArrayList<>();
+        String root = null;
+        for (String packageName : packages) {
+            if (null == root || !packageName.startsWith(root + ".")) {
+                root = packageName;
+                includes.add(root + ".*");
+            }
+        }
+        return includes;
+    }
+
+    /**
+     * @return the patterns of a configured value, separated by ':' as on the agent command line or by ','
+     */
+    static List<String> parse(String patterns) {
+        final List<String> includes = new ArrayList<>();
+        for (String pattern : nullCheck(patterns, "Patterns must be present.").split("[:,]")) {
+            if (!pattern.trim().isEmpty()) {
+                includes.add(pattern.trim());
+            }
+        }
+        return includes;
+    }
+
+    /**
+     * @return a list resolving the provider the first time it is read, so the patterns are computed at execution time
+     */
+    static List<String> lazy(Provider<List<String>> patterns) {
+        return new LazyPatterns(nullCheck(patterns, "Patterns must be present."));
+    }
+
+    /**
+     * @return the source directories of every language of the source set, without its resources
+     */
+    static Set<File> getSourceDirectories(SourceSet sourceSet) {
+        final Set<File> directories = new LinkedHashSet<>(sourceSet.getAllSource().getSrcDirs());
+        directories.removeAll(sourceSet.getResources().getSrcDirs());
+        return directories;
+    }
+
+    static final String AUTO = "auto";
+    static final String ALL = "*";
+
+    /**
+     * Runtime generated subclasses share the package of the class they extend
+     */
+    static final List<String> GENERATED_CLASSES = Collections.unmodifiableList(Arrays.asList(
+        "*$MockitoMock$*", "*$ByteBuddy$*", "*$$EnhancerByMockitoWithCGLIB$$*", "*$$EnhancerBySpringCGLIB$$*"));
+
+    private CoverageAgentScope() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    private static void collectPackages(File directory, String packageName, Collection<String> packages) {
+        final File[] children = directory.listFiles(File::isDirectory);
+        if (null == children) {
+            return;
+        }
+        for (File child : children) {
+            final String childPackage = packageName.isEmpty() ? child.getName() : packageName + "." + child.getName();
+            if (hasSources(child)) {
+                packages.add(childPackage);
+            }
+            collectPackages(child, childPackage, packages);
+        }
+    }
+
+    private static boolean hasSources(File directory) {
+        final File[] sources = directory.listFiles((dir, name) -> SOURCE_EXTENSIONS.stream().anyMatch(name::endsWith));
+        return null != sources && sources.length > 0;
+    }
+
+    private static final List<String> SOURCE_EXTENSIONS = Arrays.asList(".java", ".kt", ".groovy", ".scala");
+
+    private static final class LazyPatterns extends AbstractList<String> {
+        private LazyPatterns(Provider<List<String>> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public String get(int index) {
+            return resolve().get(index);
+        }
+
+        @Override
+        public int size() {
+            return resolve().size();
+        }
+
+        private List<String> resolve() {
+            if (null == patterns) {
+                patterns = Collections.unmodifiableList(new ArrayList<>(provider.get()));
+            }
+            return patterns;
+        }
+
+        private final Provider<List<String>> provider;
+        private List<String> patterns;
+    }
+}
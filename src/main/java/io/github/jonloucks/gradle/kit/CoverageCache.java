@@ -0,0 +1,231 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CachedCoverage.ClassNode;
+import org.gradle.api.GradleException;
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.gradle.kit.CachedCoverage.readVarInt;
+import static io.github.jonloucks.gradle.kit.CachedCoverage.writeVarInt;
+import static io.github.jonloucks.gradle.kit.Checksums.Algorithm.SHA256;
+
+/**
+ * Cache of class coverage keyed by the SHA-256 of the class file and the probes of its execution data.
+ * Only classes whose bytes or probes changed are analyzed again.
+ * The cache is stored in a compact binary file holding the classes of the last analysis only.
+ */
+final class CoverageCache {
+
+    /**
+     * @return the cache stored in the file, an empty cache if it is missing or unreadable
+     */
+    static CoverageCache load(File cacheFile) {
+        final CoverageCache cache = new CoverageCache();
+        final File validFile = nullCheck(cacheFile, "Cache file must be present.");
+        if (!validFile.isFile()) {
+            return cache;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(validFile.toPath()), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !JaCoCo.VERSION.equals(input.readUTF())) {
+                return cache;
+            }
+            final int count = readVarInt(input);
+            for (int i = 0; i < count; i++) {
+                final String sha256 = input.readUTF();
+                cache.entries.put(sha256, Entry.read(input));
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // a damaged cache only costs a full analysis
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    static String hash(byte[] classBytes) {
+        final MessageDigest digest = SHA256.createDigest();
+        return Checksums.toHex(digest.digest(classBytes));
+    }
+
+    /**
+     * @return the coverage of the class file when its bytes and probes are unchanged, empty when it must be analyzed
+     */
+    Optional<List<IClassCoverage>> find(String sha256, ExecutionDataStore executionData) {
+        final Entry entry = entries.get(nullCheck(sha256, "SHA-256 must be present."));
+        if (null == entry || !entry.matches(executionData)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        used.put(sha256, entry);
+        hits.incrementAndGet();
+        if (null == entry.coverage) {
+            return Optional.of(Collections.emptyList());
+        }
+        final ExecutionData data = executionData.get(entry.coverage.getId());
+        final boolean noMatch = null == data && executionData.contains(entry.coverage.getName());
+        return Optional.of(Collections.singletonList(entry.coverage.withNoMatch(noMatch)));
+    }
+
+    /**
+     * Records the analysis of a class file, a class file has at most one class
+     */
+    void put(String sha256, List<IClassCoverage> coverages, ExecutionDataStore executionData) {
+        nullCheck(sha256, "SHA-256 must be present.");
+        if (nullCheck(coverages, "Coverages must be present.").size() > 1) {
+            return;
+        }
+        final ClassNode coverage = coverages.isEmpty() ? null : ClassNode.of(coverages.get(0));
+        final ExecutionData data = null == coverage ? null : executionData.get(coverage.getId());
+        final Entry entry = new Entry(coverage, null == data ? null : data.getProbes().clone());
+        entries.put(sha256, entry);
+        used.put(sha256, entry);
+    }
+
+    /**
+     * Writes the classes found or analyzed since loading, classes that no longer exist are dropped
+     */
+    void save(File cacheFile) {
+        final Path target = nullCheck(cacheFile, "Cache file must be present.").toPath();
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            final Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(),
+                target.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempFile), BUFFER_SIZE))) {
+                    output.writeInt(MAGIC);
+                    output.writeInt(VERSION);
+                    output.writeUTF(JaCoCo.VERSION);
+                    final List<Map.Entry<String, Entry>> sorted = new ArrayList<>(used.entrySet());
+                    sorted.sort(Map.Entry.comparingByKey());
+                    writeVarInt(output, sorted.size());
+                    for (Map.Entry<String, Entry> entry : sorted) {
+                        output.writeUTF(entry.getKey());
+                        entry.getValue().write(output);
+                    }
+                }
+                move(tempFile, target);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to save coverage cache " + cacheFile + ".", thrown);
+        }
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cached classes, %d analyzed classes", getHits(), getMisses());
+    }
+
+    /**
+     * The coverage of one class file and the probes it was analyzed with
+     */
+    private static final class Entry {
+        private Entry(ClassNode coverage, boolean[] probes) {
+            this.coverage = coverage;
+            this.probes = probes;
+        }
+
+        private boolean matches(ExecutionDataStore executionData) {
+            if (null == coverage) {
+                return true;
+            }
+            final ExecutionData data = executionData.get(coverage.getId());
+            return Arrays.equals(probes, null == data ? null : data.getProbes());
+        }
+
+        private void write(DataOutputStream output) throws IOException {
+            output.writeBoolean(null != coverage);
+            if (null == coverage) {
+                return;
+            }
+            coverage.write(output);
+            output.writeBoolean(null != probes);
+            if (null != probes) {
+                writeVarInt(output, probes.length);
+                final byte[] packed = new byte[(probes.length + 7) / 8];
+                for (int i = 0; i < probes.length; i++) {
+                    if (probes[i]) {
+                        packed[i / 8] |= (byte) (1 << (i % 8));
+                    }
+                }
+                output.write(packed);
+            }
+        }
+
+        private static Entry read(DataInputStream input) throws IOException {
+            if (!input.readBoolean()) {
+                return new Entry(null, null);
+            }
+            final ClassNode coverage = ClassNode.read(input);
+            if (!input.readBoolean()) {
+                return new Entry(coverage, null);
+            }
+            final boolean[] probes = new boolean[readVarInt(input)];
+            final byte[] packed = new byte[(probes.length + 7) / 8];
+            input.readFully(packed);
+            for (int i = 0; i < probes.length; i++) {
+                probes[i] = (packed[i / 8] & (1 << (i % 8))) != 0;
+            }
+            return new Entry(coverage, probes);
+        }
+
+        private final ClassNode coverage;
+        private final boolean[] probes;
+    }
+
+    private CoverageCache() {
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final int MAGIC = 0x4B495443; // KITC
+    /**
+     * The format of the file, the JaCoCo version is stored next to it since analysis results differ between versions
+     */
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+}
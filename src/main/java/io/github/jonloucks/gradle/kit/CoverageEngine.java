@@ -0,0 +1,368 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.data.ExecutionDataReader;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.report.DirectorySourceFileLocator;
+import org.jacoco.report.FileMultiReportOutput;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.MultiReportVisitor;
+import org.jacoco.report.MultiSourceFileLocator;
+import org.jacoco.report.check.Limit;
+import org.jacoco.report.check.Rule;
+import org.jacoco.report.check.RulesChecker;
+import org.jacoco.report.csv.CSVFormatter;
+import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.xml.XMLFormatter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * In-process JaCoCo engine for aggregated coverage.
+ * Execution files are merged while they are read, class files are analyzed in parallel
+ * and every report format is written from the same analysis.
+ */
+final class CoverageEngine {
+
+    CoverageEngine(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Merged execution data, the probes of a class are combined across all execution files
+     */
+    static final class Execution {
+        Execution(ExecutionDataStore executionData, SessionInfoStore sessionInfos) {
+            this.executionData = nullCheck(executionData, "Execution data must be present.");
+            this.sessionInfos = nullCheck(sessionInfos, "Session infos must be present.");
+        }
+
+        ExecutionDataStore getExecutionData() {
+            return executionData;
+        }
+
+        SessionInfoStore getSessionInfos() {
+            return sessionInfos;
+        }
+
+        private final ExecutionDataStore executionData;
+        private final SessionInfoStore sessionInfos;
+    }
+
+    /**
+     * Each worker streams its share of the files into its own store, the stores are merged at the end
+     */
+    Execution merge(Collection<File> executionFiles) {
+        final List<List<File>> shares = share(existingFiles(executionFiles));
+        final List<Execution> executions = run(shares, CoverageEngine::read, "Unable to read execution data.");
+        final Execution merged = new Execution(new ExecutionDataStore(), new SessionInfoStore());
+        for (Execution execution : executions) {
+            execution.getExecutionData().accept(merged.getExecutionData());
+            execution.getSessionInfos().accept(merged.getSessionInfos());
+        }
+        return merged;
+    }
+
+    /**
+     * Merged execution data and its analysis
+     */
+    static final class Analysis {
+        Analysis(Execution execution, IBundleCoverage bundle) {
+            this.execution = nullCheck(execution, "Execution must be present.");
+            this.bundle = nullCheck(bundle, "Bundle must be present.");
+        }
+
+        Execution getExecution() {
+            return execution;
+        }
+
+        IBundleCoverage getBundle() {
+            return bundle;
+        }
+
+        private final Execution execution;
+        private final IBundleCoverage bundle;
+    }
+
+    /**
+     * Merges the execution files and analyzes the classes, reusing and then updating the analysis cache
+     *
+     * @param cacheFile the analysis cache, null to analyze every class
+     */
+    Analysis mergeAndAnalyze(Collection<File> executionFiles, Collection<File> classLocations, String name,
+                             File cacheFile, Logger logger) {
+        final Execution execution = merge(executionFiles);
+        final CoverageCache cache = null == cacheFile ? null : CoverageCache.load(cacheFile);
+        final IBundleCoverage bundle = analyze(execution, classLocations, name, cache);
+        if (null != cache) {
+            cache.save(cacheFile);
+            logger.info("Coverage analysis {}", cache);
+        }
+        return new Analysis(execution, bundle);
+    }
+
+    /**
+     * @return the coverage of all classes in the class directories or archives
+     */
+    IBundleCoverage analyze(Execution execution, Collection<File> classLocations, String name) {
+        return analyze(execution, classLocations, name, null);
+    }
+
+    /**
+     * Class files found in the cache with the same bytes and probes are not analyzed again
+     *
+     * @return the coverage of all classes in the class directories or archives
+     */
+    IBundleCoverage analyze(Execution execution, Collection<File> classLocations, String name, CoverageCache cache) {
+        final CoverageBuilder builder = new CoverageBuilder();
+        final List<List<File>> shares = share(listClassFiles(classLocations));
+        run(shares, share -> {
+            // analyzers are not thread safe, one per share
+            final List<IClassCoverage> analyzed = new ArrayList<>();
+            final Analyzer analyzer = new Analyzer(execution.getExecutionData(), analyzed::add);
+            for (File classFile : share) {
+                if (null != cache && classFile.getName().endsWith(".class")) {
+                    analyzeCached(execution, analyzer, classFile, analyzed, cache);
+                } else {
+                    analyzer.analyzeAll(classFile);
+                }
+                synchronized (builder) {
+                    for (IClassCoverage coverage : analyzed) {
+                        builder.visitCoverage(coverage);
+                    }
+                }
+                analyzed.clear();
+            }
+            return share.size();
+        }, "Unable to analyze coverage.");
+        return builder.getBundle(name);
+    }
+
+    /**
+     * Writes the requested reports in a single pass over the analysis, a null destination skips its format
+     */
+    static void writeReports(Execution execution, IBundleCoverage bundle, Collection<File> sourceDirectories,
+                             File xmlFile, File csvFile, File htmlDirectory) {
+        final List<OutputStream> streams = new ArrayList<>();
+        try {
+            final List<IReportVisitor> visitors = new ArrayList<>();
+            if (null != xmlFile) {
+                final XMLFormatter formatter = new XMLFormatter();
+                formatter.setOutputEncoding(UTF_8.name());
+                visitors.add(formatter.createVisitor(open(xmlFile, streams)));
+            }
+            if (null != csvFile) {
+                final CSVFormatter formatter = new CSVFormatter();
+                formatter.setOutputEncoding(UTF_8.name());
+                visitors.add(formatter.createVisitor(open(csvFile, streams)));
+            }
+            if (null != htmlDirectory) {
+                final HTMLFormatter formatter = new HTMLFormatter();
+                formatter.setOutputEncoding(UTF_8.name());
+                visitors.add(formatter.createVisitor(new FileMultiReportOutput(htmlDirectory)));
+            }
+            final IReportVisitor visitor = new MultiReportVisitor(visitors);
+            visitor.visitInfo(execution.getSessionInfos().getInfos(), execution.getExecutionData().getContents());
+            visitor.visitBundle(bundle, createSourceLocator(sourceDirectories));
+            visitor.visitEnd();
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to write coverage reports.", thrown);
+        } finally {
+            for (OutputStream stream : streams) {
+                closeQuietly(stream);
+            }
+        }
+    }
+
+    /**
+     * Checks the bundle against a minimum covered ratio per counter, the rules of the verification task
+     *
+     * @return the violation messages, empty when all counters are covered enough
+     */
+    static List<String> check(IBundleCoverage bundle, Map<String, BigDecimal> minimumCoveredRatios) {
+        nullCheck(bundle, "Bundle must be present.");
+        final List<Rule> rules = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entry : nullCheck(minimumCoveredRatios,
+            "Minimum covered ratios must be present.").entrySet()) {
+            final Limit limit = new Limit();
+            limit.setCounter(entry.getKey());
+            limit.setValue("COVEREDRATIO");
+            limit.setMinimum(entry.getValue().toString());
+            final Rule rule = new Rule();
+            rule.setElement("BUNDLE");
+            rule.setLimits(Collections.singletonList(limit));
+            rules.add(rule);
+        }
+        final List<String> violations = new ArrayList<>();
+        final RulesChecker checker = new RulesChecker();
+        checker.setRules(rules);
+        final IReportVisitor visitor = checker.createVisitor((node, rule, limit, message) -> violations.add(message));
+        try {
+            visitor.visitInfo(Collections.emptyList(), Collections.emptyList());
+            visitor.visitBundle(bundle, new MultiSourceFileLocator(TAB_WIDTH));
+            visitor.visitEnd();
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to check coverage.", thrown);
+        }
+        return violations;
+    }
+
+    static List<File> listClassFiles(Collection<File> classLocations) {
+        final List<File> classFiles = new ArrayList<>();
+        for (File location : existingFiles(classLocations)) {
+            if (location.isFile()) {
+                classFiles.add(location);
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(location.toPath())) {
+                classFiles.addAll(paths.filter(path -> path.toString().endsWith(".class"))
+                    .filter(Files::isRegularFile).sorted().map(Path::toFile).collect(Collectors.toList()));
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to list classes of " + location + ".", thrown);
+            }
+        }
+        return classFiles;
+    }
+
+    private static void analyzeCached(Execution execution, Analyzer analyzer, File classFile,
+                                      List<IClassCoverage> analyzed, CoverageCache cache) throws IOException {
+        final byte[] classBytes = Files.readAllBytes(classFile.toPath());
+        final String sha256 = CoverageCache.hash(classBytes);
+        final Optional<List<IClassCoverage>> cached = cache.find(sha256, execution.getExecutionData());
+        if (cached.isPresent()) {
+            analyzed.addAll(cached.get());
+        } else {
+            analyzer.analyzeClass(classBytes, classFile.getPath());
+            cache.put(sha256, analyzed, execution.getExecutionData());
+        }
+    }
+
+    private static Execution read(List<File> executionFiles) throws IOException {
+        final Execution execution = new Execution(new ExecutionDataStore(), new SessionInfoStore());
+        for (File executionFile : executionFiles) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(executionFile.toPath()), BUFFER_SIZE)) {
+                final ExecutionDataReader reader = new ExecutionDataReader(input);
+                reader.setExecutionDataVisitor(execution.getExecutionData());
+                reader.setSessionInfoVisitor(execution.getSessionInfos());
+                reader.read();
+            }
+        }
+        return execution;
+    }
+
+    private static MultiSourceFileLocator createSourceLocator(Collection<File> sourceDirectories) {
+        final MultiSourceFileLocator locator = new MultiSourceFileLocator(TAB_WIDTH);
+        for (File sourceDirectory : existingFiles(sourceDirectories)) {
+            locator.add(new DirectorySourceFileLocator(sourceDirectory, UTF_8.name(), TAB_WIDTH));
+        }
+        return locator;
+    }
+
+    private static OutputStream open(File file, List<OutputStream> streams) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        final OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE);
+        streams.add(stream);
+        return stream;
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // the report failure, if any, is more relevant
+        }
+    }
+
+    private static List<File> existingFiles(Collection<File> files) {
+        return nullCheck(files, "Files must be present.").stream().filter(File::exists).sorted()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Deals the files round robin, so large and small modules are spread over the workers
+     */
+    private List<List<File>> share(List<File> files) {
+        final int count = Math.max(1, Math.min(parallelism, files.size()));
+        final List<List<File>> shares = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shares.add(new ArrayList<>());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            shares.get(i % count).add(files.get(i));
+        }
+        return shares;
+    }
+
+    private interface Work<T> {
+        T run(List<File> share) throws IOException;
+    }
+
+    private <T> List<T> run(List<List<File>> shares, Work<T> work, String failure) {
+        final List<T> results = new ArrayList<>();
+        if (shares.size() == 1) {
+            try {
+                results.add(work.run(shares.get(0)));
+            } catch (IOException | RuntimeException thrown) {
+                throw new GradleException(failure, thrown);
+            }
+            return results;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(shares.size());
+        try {
+            final List<Future<T>> futures = new ArrayList<>();
+            for (List<File> share : shares) {
+                final Callable<T> task = () -> work.run(share);
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException thrown) {
+            throw new GradleException(failure, thrown.getCause());
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+            throw new GradleException(failure, thrown);
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TAB_WIDTH = 4;
+
+    private final int parallelism;
+}
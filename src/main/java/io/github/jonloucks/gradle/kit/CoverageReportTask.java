@@ -0,0 +1,97 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CoverageEngine.Analysis;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.jacoco.core.analysis.IBundleCoverage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregated coverage report of all modules, produced in-process with 'org.jacoco.core'.
+ * Execution data is merged while it is read, class directories are analyzed in parallel
+ * and the XML, CSV and HTML reports share one analysis.
+ * Classes with unchanged bytes and probes are taken from the analysis cache of the previous run.
+ */
+@CacheableTask
+abstract class CoverageReportTask extends DefaultTask {
+
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getExecutionData();
+
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClassDirectories();
+
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceDirectories();
+
+    /**
+     * @return the name of the report, shown as the root of the HTML report
+     */
+    @Input
+    public abstract Property<String> getReportName();
+
+    /**
+     * @return the number of threads reading execution data and analyzing classes
+     */
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    /**
+     * @return the coverage of the classes analyzed by the last run, unchanged classes are not analyzed again
+     */
+    @LocalState
+    public abstract RegularFileProperty getAnalysisCache();
+
+    @OutputFile
+    public abstract RegularFileProperty getXmlReport();
+
+    @OutputFile
+    public abstract RegularFileProperty getCsvReport();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getHtmlDirectory();
+
+    @TaskAction
+    public void createReports() {
+        final long start = System.nanoTime();
+        final Analysis analysis = new CoverageEngine(getParallelism().get()).mergeAndAnalyze(
+            getExecutionData().getFiles(), getClassDirectories().getFiles(), getReportName().get(),
+            getAnalysisCache().getAsFile().getOrNull(), getLogger());
+        final IBundleCoverage bundle = analysis.getBundle();
+        CoverageEngine.writeReports(analysis.getExecution(), bundle, getSourceDirectories().getFiles(),
+            getXmlReport().get().getAsFile(), getCsvReport().get().getAsFile(), getHtmlDirectory().get().getAsFile());
+        getLogger().lifecycle("Coverage of {} classes from {} execution files took {} ms",
+            bundle.getClassCounter().getTotalCount(), getExecutionData().getFiles().size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        verify(bundle);
+    }
+
+    /**
+     * Called once the reports are written, with the same analysis
+     */
+    protected void verify(IBundleCoverage bundle) {
+    }
+}
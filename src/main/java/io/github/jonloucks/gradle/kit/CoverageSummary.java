@@ -0,0 +1,111 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Per counter totals of a coverage analysis, written as a few lines of JSON or CSV.
+ * The CSV has the columns of the JaCoCo CSV report, so badge generators read it as they read 'jacocoTestReport.csv'.
+ */
+final class CoverageSummary {
+
+    /**
+     * @return the totals as JSON, for example {"name":"kit","counters":{"LINE":{"missed":1,"covered":19,"ratio":0.95}}}
+     */
+    static String toJson(ICoverageNode node) {
+        final ICoverageNode validNode = nullCheck(node, "Coverage must be present.");
+        final StringBuilder json = new StringBuilder("{\n  \"name\": \"").append(escape(validNode.getName()))
+            .append("\",\n  \"counters\": {");
+        final CounterEntity[] entities = CounterEntity.values();
+        for (int i = 0; i < entities.length; i++) {
+            final ICounter counter = validNode.getCounter(entities[i]);
+            json.append(i == 0 ? "\n" : ",\n").append("    \"").append(entities[i].name()).append("\": {")
+                .append("\"missed\": ").append(counter.getMissedCount())
+                .append(", \"covered\": ").append(counter.getCoveredCount())
+                .append(", \"ratio\": ").append(formatRatio(counter))
+                .append('}');
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * @return a header and a single row of totals in the JaCoCo CSV layout
+     */
+    static String toCsv(ICoverageNode node) {
+        final ICoverageNode validNode = nullCheck(node, "Coverage must be present.");
+        final StringBuilder csv = new StringBuilder("GROUP,PACKAGE,CLASS");
+        for (CounterEntity entity : CSV_COUNTERS) {
+            csv.append(',').append(entity.name()).append("_MISSED,").append(entity.name()).append("_COVERED");
+        }
+        csv.append('\n').append(validNode.getName().replace(",", "")).append(",,");
+        for (CounterEntity entity : CSV_COUNTERS) {
+            final ICounter counter = validNode.getCounter(entity);
+            csv.append(',').append(counter.getMissedCount()).append(',').append(counter.getCoveredCount());
+        }
+        return csv.append('\n').toString();
+    }
+
+    /**
+     * @return the covered percentage of each counter, for logging
+     */
+    static String toPercentages(ICoverageNode node) {
+        final StringBuilder text = new StringBuilder();
+        for (CounterEntity entity : CSV_COUNTERS) {
+            final ICounter counter = nullCheck(node, "Coverage must be present.").getCounter(entity);
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(entity.name().toLowerCase(Locale.ROOT)).append(' ');
+            text.append(counter.getTotalCount() == 0 ? "n/a"
+                : String.format(Locale.ROOT, "%.1f%%", 100 * counter.getCoveredRatio()));
+        }
+        return text.toString();
+    }
+
+    static void write(File file, String content) {
+        try {
+            Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+            Files.write(file.toPath(), content.getBytes(UTF_8));
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to write coverage summary " + file + ".", thrown);
+        }
+    }
+
+    private CoverageSummary() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+
+    private static String formatRatio(ICounter counter) {
+        return counter.getTotalCount() == 0 ? "null" : String.format(Locale.ROOT, "%.4f", counter.getCoveredRatio());
+    }
+
+    private static String escape(String text) {
+        final StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // the counters of the JaCoCo CSV report, in its column order
+    private static final CounterEntity[] CSV_COUNTERS = {
+        CounterEntity.INSTRUCTION, CounterEntity.BRANCH, CounterEntity.LINE, CounterEntity.COMPLEXITY,
+        CounterEntity.METHOD
+    };
+}
@@ -0,0 +1,66 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.jacoco.core.analysis.IBundleCoverage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per counter coverage totals of all modules, without rendering any report.
+ * Meant for badges and logging the coverage percentages, the analysis of unchanged classes is reused.
+ */
+@CacheableTask
+abstract class CoverageSummaryTask extends DefaultTask {
+
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getExecutionData();
+
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClassDirectories();
+
+    @Input
+    public abstract Property<String> getSummaryName();
+
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    @LocalState
+    public abstract RegularFileProperty getAnalysisCache();
+
+    @OutputFile
+    public abstract RegularFileProperty getJsonSummary();
+
+    @OutputFile
+    public abstract RegularFileProperty getCsvSummary();
+
+    @TaskAction
+    public void summarize() {
+        final long start = System.nanoTime();
+        final IBundleCoverage bundle = new CoverageEngine(getParallelism().get()).mergeAndAnalyze(
+            getExecutionData().getFiles(), getClassDirectories().getFiles(), getSummaryName().get(),
+            getAnalysisCache().getAsFile().getOrNull(), getLogger()).getBundle();
+        CoverageSummary.write(getJsonSummary().get().getAsFile(), CoverageSummary.toJson(bundle));
+        CoverageSummary.write(getCsvSummary().get().getAsFile(), CoverageSummary.toCsv(bundle));
+        getLogger().lifecycle("Coverage {}", CoverageSummary.toPercentages(bundle));
+        getLogger().info("Coverage summary took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
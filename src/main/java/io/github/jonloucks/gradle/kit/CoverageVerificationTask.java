@@ -0,0 +1,33 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.jacoco.core.analysis.IBundleCoverage;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Aggregated coverage reports and verification from a single analysis.
+ * Replaces running both 'jacocoTestReport' and 'jacocoTestCoverageVerification',
+ * which analyze every class and execution file on their own.
+ */
+@CacheableTask
+abstract class CoverageVerificationTask extends CoverageReportTask {
+
+    /**
+     * @return the minimum covered ratio of each counter, for example 'LINE' to 0.95
+     */
+    @Input
+    public abstract MapProperty<String, BigDecimal> getMinimumCoveredRatios();
+
+    @Override
+    protected void verify(IBundleCoverage bundle) {
+        final List<String> violations = CoverageEngine.check(bundle, getMinimumCoveredRatios().get());
+        if (!violations.isEmpty()) {
+            throw new GradleException(String.join("\n", violations));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CoverageEngine.Execution;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coverage verification of the lines changed since a base ref.
+ * Only the classes compiled from changed sources are analyzed and the minimum covered ratio
+ * applies to the changed lines, so the check does not grow with the size of the repository.
+ */
+@UntrackedTask(because = "The changed lines are read from the git working tree.")
+abstract class DiffCoverageTask extends DefaultTask {
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getExecutionData();
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClassDirectories();
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceDirectories();
+
+    /**
+     * @return the branch, tag or commit the changes are compared with
+     */
+    @Input
+    public abstract Property<String> getBaseRef();
+
+    /**
+     * @return the minimum covered ratio of the changed lines
+     */
+    @Input
+    public abstract Property<BigDecimal> getMinimumCoveredRatio();
+
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    /**
+     * @return the directory of the git working tree the changes are read from
+     */
+    @Internal
+    public abstract DirectoryProperty getRepositoryDirectory();
+
+    @TaskAction
+    public void verifyChangedLines() {
+        final long start = System.nanoTime();
+        final File repositoryDirectory = getRepositoryDirectory().get().getAsFile();
+        final Map<String, BitSet> changedSources = toSourcePaths(repositoryDirectory,
+            ChangedLines.read(repositoryDirectory, getBaseRef().get()));
+        final List<File> classFiles = findClassFiles(changedSources);
+        if (classFiles.isEmpty()) {
+            getLogger().lifecycle("No changed classes since {}", getBaseRef().get());
+            return;
+        }
+        final CoverageEngine engine = new CoverageEngine(getParallelism().get());
+        final Execution execution = engine.merge(getExecutionData().getFiles());
+        final IBundleCoverage bundle = engine.analyze(execution, classFiles, "changed lines");
+        verify(bundle, changedSources);
+        getLogger().lifecycle("Coverage of {} changed classes since {} took {} ms", classFiles.size(),
+            getBaseRef().get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void verify(IBundleCoverage bundle, Map<String, BitSet> changedSources) {
+        int covered = 0;
+        int total = 0;
+        final List<String> uncovered = new ArrayList<>();
+        for (IPackageCoverage packageCoverage : bundle.getPackages()) {
+            for (ISourceFileCoverage source : packageCoverage.getSourceFiles()) {
+                final String sourcePath = toSourcePath(source.getPackageName(), source.getName());
+                final BitSet changed = changedSources.getOrDefault(sourcePath, new BitSet());
+                final List<Integer> missed = new ArrayList<>();
+                for (int nr = changed.nextSetBit(0); nr >= 0; nr = changed.nextSetBit(nr + 1)) {
+                    final ILine line = source.getLine(nr);
+                    if (line.getInstructionCounter().getTotalCount() == 0) {
+                        continue;
+                    }
+                    total++;
+                    if (line.getInstructionCounter().getCoveredCount() > 0) {
+                        covered++;
+                    } else {
+                        missed.add(nr);
+                    }
+                }
+                if (!missed.isEmpty()) {
+                    uncovered.add(sourcePath + " lines " + missed);
+                }
+            }
+        }
+        getLogger().lifecycle("Changed lines covered {} of {}", covered, total);
+        if (total == 0) {
+            return;
+        }
+        final BigDecimal minimum = getMinimumCoveredRatio().get();
+        final BigDecimal ratio = BigDecimal.valueOf(covered).divide(BigDecimal.valueOf(total),
+            Math.max(minimum.scale(), 2), RoundingMode.FLOOR);
+        if (ratio.compareTo(minimum) < 0) {
+            throw new GradleException("Rule violated for changed lines: lines covered ratio is "
+                + ratio.toPlainString() + ", but expected minimum is " + minimum.toPlainString() + "\n"
+                + String.join("\n", uncovered));
+        }
+    }
+
+    /**
+     * Re-keys the changed files by their path within a source directory, which is how JaCoCo names them
+     */
+    private Map<String, BitSet> toSourcePaths(File repositoryDirectory, Map<String, BitSet> changes) {
+        final Map<String, BitSet> sourcePaths = new TreeMap<>();
+        for (Map.Entry<String, BitSet> change : changes.entrySet()) {
+            final Path changedFile = repositoryDirectory.toPath().resolve(change.getKey()).normalize();
+            for (File sourceDirectory : getSourceDirectories().getFiles()) {
+                final Path sourcePath = sourceDirectory.toPath().normalize();
+                if (changedFile.startsWith(sourcePath)) {
+                    sourcePaths.put(sourcePath.relativize(changedFile).toString().replace(File.separatorChar, '/'),
+                        change.getValue());
+                    break;
+                }
+            }
+        }
+        return sourcePaths;
+    }
+
+    /**
+     * The classes of 'a/b/C.java' are 'a/b/C.class' and its nested classes 'a/b/C$*.class'
+     */
+    private List<File> findClassFiles(Map<String, BitSet> changedSources) {
+        final List<File> classFiles = new ArrayList<>();
+        for (String sourcePath : changedSources.keySet()) {
+            final int slash = sourcePath.lastIndexOf('/');
+            final String packagePath = slash < 0 ? "" : sourcePath.substring(0, slash);
+            final String className = sourcePath.substring(slash + 1).replaceFirst("\\.java$", "");
+            for (File classDirectory : getClassDirectories().getFiles()) {
+                final File[] candidates = new File(classDirectory, packagePath).listFiles((dir, name) ->
+                    name.equals(className + ".class") || name.startsWith(className + "$") && name.endsWith(".class"));
+                if (null != candidates) {
+                    classFiles.addAll(Arrays.asList(candidates));
+                }
+            }
+        }
+        return classFiles;
+    }
+
+    private static String toSourcePath(String packageName, String sourceName) {
+        return packageName.isEmpty() ? sourceName : packageName + "/" + sourceName;
+    }
+}
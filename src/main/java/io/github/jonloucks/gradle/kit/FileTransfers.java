@@ -0,0 +1,61 @@
+package io.github.jonloucks.gradle.kit;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Zero-copy file transfers, the kernel moves the bytes without copying them through the Java heap.
+ */
+final class FileTransfers {
+
+    /**
+     * Links the target to the source when the filesystem allows it, otherwise copies with transferTo
+     *
+     * @return true if the target was hard linked
+     */
+    static boolean linkOrCopy(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException ignored) {
+            // different filesystems, no hard link support or not permitted
+        }
+        copy(source, target);
+        return false;
+    }
+
+    static void copy(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(source, Files.size(source), targetChannel);
+        }
+    }
+
+    /**
+     * Writes exactly size bytes of the source at the current position of the target
+     */
+    static void transfer(Path source, long size, WritableByteChannel target) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                final long count = sourceChannel.transferTo(position, size - position, target);
+                if (count <= 0) {
+                    throw new IOException("Unexpected end of file " + source + ".");
+                }
+                position += count;
+            }
+        }
+    }
+
+    private FileTransfers() {
+        throw new AssertionError("Utility class can't be instantiated.");
+    }
+}
@@ -1,21 +1,38 @@
 package io.github.jonloucks.gradle.kit;
 
 import org.gradle.api.Action;
+import org.gradle.api.NamedDomainObjectProvider;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskCollection;
 import org.gradle.api.tasks.testing.Test;
 import org.gradle.testing.jacoco.plugins.JacocoPlugin;
 import org.gradle.testing.jacoco.plugins.JacocoPluginExtension;
+import org.gradle.testing.jacoco.plugins.JacocoTaskExtension;
 import org.gradle.testing.jacoco.tasks.JacocoCoverageVerification;
 import org.gradle.testing.jacoco.tasks.JacocoReport;
 import org.gradle.testing.jacoco.tasks.JacocoReportBase;
 import org.gradle.testing.jacoco.tasks.rules.JacocoViolationRulesContainer;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
 
+import static io.github.jonloucks.gradle.kit.Aggregations.*;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_COVERAGE_AGENT_INCLUDES;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_COVERAGE_DIFF_BASE;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_COVERAGE_PARALLELISM;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_COVERAGE_PER_MODULE;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_PROJECT_WORKFLOW;
 import static io.github.jonloucks.gradle.kit.Internal.isTestingTaskName;
 
 @SuppressWarnings("CodeBlock2Expr")
@@ -31,44 +48,199 @@ final class JacocoApplier extends ProjectApplier {
             log("Applying jacoco plugin...");
             getProject().getPlugins().apply("jacoco");
             
-            getProject().afterEvaluate(project -> {
-                configureJacocoPlugin();
+            configureJacocoPlugin();
+            getProject().getPluginManager().withPlugin("java", plugin -> {
+                registerCoverageElements();
+                configureCoverageAgent();
                 configureExistingReports();
                 configureVerificationReports();
+                registerCoverageReport();
+                registerDiffCoverageVerification();
+                registerVerificationSummary();
             });
         });
     }
     
+    /**
+     * Scopes the agent to the packages of the module, test projects cover other modules and stay unscoped.
+     * The sources are scanned when the agent arguments are read, not while the test tasks are configured.
+     */
+    private void configureCoverageAgent() {
+        final String includes = requireConfig(KIT_COVERAGE_AGENT_INCLUDES);
+        if (CoverageAgentScope.ALL.equals(includes) || CoverageAgentScope.AUTO.equals(includes) && isTestProject()) {
+            return;
+        }
+        final Provider<List<String>> agentIncludes = CoverageAgentScope.AUTO.equals(includes)
+            ? getProject().getExtensions().getByType(SourceSetContainer.class).named("main")
+                .map(sourceSet -> CoverageAgentScope.toIncludes(CoverageAgentScope.getSourceDirectories(sourceSet)))
+            : getProject().provider(() -> CoverageAgentScope.parse(includes));
+        final Provider<List<String>> agentExcludes = agentIncludes.map(patterns -> patterns.isEmpty()
+            ? new ArrayList<>() : new ArrayList<>(CoverageAgentScope.GENERATED_CLASSES));
+        getTestingTasks(getProject()).configureEach(test -> {
+            final JacocoTaskExtension agent = test.getExtensions().getByType(JacocoTaskExtension.class);
+            agent.setIncludes(CoverageAgentScope.lazy(agentIncludes));
+            agent.setExcludes(CoverageAgentScope.lazy(agentExcludes));
+        });
+    }
+    
     private void configureExistingReports() {
         getProject().getTasks().named(JACOCO_TEST_REPORT, JacocoReport.class)
-            .configure(configureExistingReport());
+            .configure(profiled("configure " + JACOCO_TEST_REPORT, configureExistingReport()));
+    }
+    
+    private void registerCoverageReport() {
+        if (!isRootProject()) {
+            return;
+        }
+        log("Registering " + COVERAGE_REPORT_TASK_NAME + " ...");
+        getProject().getTasks().register(COVERAGE_REPORT_TASK_NAME, CoverageReportTask.class, task -> {
+            task.setDescription("Generates the aggregated coverage reports of all modules in parallel.");
+            configureCoverageReport(task, "kit-coverage");
+        });
+        log("Registering " + COVERAGE_SUMMARY_TASK_NAME + " ...");
+        getProject().getTasks().register(COVERAGE_SUMMARY_TASK_NAME, CoverageSummaryTask.class, task -> {
+            final DirectoryProperty buildDir = getProject().getLayout().getBuildDirectory();
+            task.setGroup("verification");
+            task.setDescription("Writes the aggregated coverage totals of all modules as JSON and CSV.");
+            task.getSummaryName().convention(getProject().getName());
+            task.getParallelism().convention(requireConfig(KIT_COVERAGE_PARALLELISM));
+            task.getAnalysisCache().convention(buildDir.file("kit/" + task.getName() + "-analysis.bin"));
+            task.getJsonSummary().convention(buildDir.file("reports/kit-coverage-summary/coverage.json"));
+            task.getCsvSummary().convention(buildDir.file("reports/kit-coverage-summary/coverage.csv"));
+            addAllCoverageFiles(task, task.getExecutionData(), task.getClassDirectories(),
+                getProject().getObjects().fileCollection());
+        });
+        log("Registering " + COVERAGE_VERIFICATION_TASK_NAME + " ...");
+        getProject().getTasks().register(COVERAGE_VERIFICATION_TASK_NAME, CoverageVerificationTask.class, task -> {
+            task.setDescription("Generates and verifies the aggregated coverage of all modules from one analysis.");
+            configureCoverageReport(task, "kit-coverage-verification");
+            for (String counter : VERIFIED_COUNTERS) {
+                task.getMinimumCoveredRatios().put(counter, MINIMUM_COVERED_RATIO);
+            }
+        });
+    }
+    
+    private void registerDiffCoverageVerification() {
+        if (!isRootProject()) {
+            return;
+        }
+        log("Registering " + DIFF_COVERAGE_VERIFICATION_TASK_NAME + " ...");
+        getProject().getTasks().register(DIFF_COVERAGE_VERIFICATION_TASK_NAME, DiffCoverageTask.class, task -> {
+            task.setGroup("verification");
+            task.setDescription("Verifies the coverage of the lines changed since the diff base.");
+            task.getBaseRef().convention(getConfigProvider(KIT_COVERAGE_DIFF_BASE).orElse(getDefaultDiffBase()));
+            task.getMinimumCoveredRatio().convention(MINIMUM_COVERED_RATIO);
+            task.getParallelism().convention(requireConfig(KIT_COVERAGE_PARALLELISM));
+            task.getRepositoryDirectory().convention(getProject().getLayout().getProjectDirectory());
+            addAllCoverageFiles(task, task.getExecutionData(), task.getClassDirectories(), task.getSourceDirectories());
+        });
+    }
+    
+    /**
+     * A pull request is compared with its target branch, otherwise only the uncommitted changes are verified.
+     * GitHub Actions names the target branch of a pull request in GITHUB_BASE_REF.
+     */
+    private Provider<String> getDefaultDiffBase() {
+        if (!PULL_REQUEST_WORKFLOW.equals(requireConfig(KIT_PROJECT_WORKFLOW))) {
+            return getProject().provider(() -> "HEAD");
+        }
+        return getProject().getProviders().environmentVariable(GITHUB_BASE_REF)
+            .filter(ref -> !ref.trim().isEmpty())
+            .map(ref -> "origin/" + ref.trim())
+            .orElse("origin/main");
+    }
+    
+    private void configureCoverageReport(CoverageReportTask task, String reportsDir) {
+        final DirectoryProperty buildDir = getProject().getLayout().getBuildDirectory();
+        task.setGroup("verification");
+        task.getReportName().convention(getProject().getName());
+        task.getParallelism().convention(requireConfig(KIT_COVERAGE_PARALLELISM));
+        task.getAnalysisCache().convention(buildDir.file("kit/" + task.getName() + "-analysis.bin"));
+        task.getXmlReport().convention(buildDir.file("reports/" + reportsDir + "/coverage.xml"));
+        task.getCsvReport().convention(buildDir.file("reports/" + reportsDir + "/coverage.csv"));
+        task.getHtmlDirectory().convention(buildDir.dir("reports/" + reportsDir + "/html"));
+        addAllCoverageFiles(task, task.getExecutionData(), task.getClassDirectories(), task.getSourceDirectories());
     }
     
     private void configureVerificationReports() {
         getProject().getTasks().named(JACOCO_VERIFICATION_REPORT, JacocoCoverageVerification.class)
-            .configure(configureExistingVerificationReport());
+            .configure(profiled("configure " + JACOCO_VERIFICATION_REPORT, configureExistingVerificationReport()));
     }
     
     private Action<JacocoCoverageVerification> configureExistingVerificationReport() {
         return verification -> {
-            if (isRootProject()) {
+            if (isPerModuleVerification()) {
+                configureModuleVerification(verification);
+            } else if (isRootProject()) {
                 verification.violationRules(rules -> {
-                    addViolationRules(rules, "LINE", "BRANCH", "CLASS", "INSTRUCTION", "METHOD");
+                    addViolationRules(rules, VERIFIED_COUNTERS);
                 });
-                getProject().allprojects(getAllJacocoFiles(verification));
+                addAllJacocoFiles(verification);
             } else {
                 verification.setEnabled(false);
             }
         };
     }
     
-    private static void addViolationRules(JacocoViolationRulesContainer rules, String ... counters) {
+    /**
+     * Each module checks its own rules right after its own tests, the modules are verified in parallel.
+     * The execution data of every testing task is verified, not only the data of 'test'.
+     */
+    private void configureModuleVerification(JacocoCoverageVerification verification) {
+        if (isTestProject()) {
+            verification.setEnabled(false);
+            return;
+        }
+        final TaskCollection<Test> testingTasks = getTestingTasks(getProject());
+        verification.executionData(testingTasks);
+        verification.dependsOn(testingTasks);
+        verification.violationRules(rules -> {
+            addViolationRules(rules, VERIFIED_COUNTERS);
+        });
+        final Provider<RegularFile> record = getVerificationRecord();
+        final String projectPath = getProject().getPath();
+        verification.getOutputs().file(record);
+        verification.doLast(task -> {
+            VerificationSummaryTask.writeRecord(record.get().getAsFile(), projectPath, VERIFIED_COUNTERS,
+                MINIMUM_COVERED_RATIO);
+        });
+        if (isRootProject()) {
+            verification.finalizedBy(VERIFICATION_SUMMARY_TASK_NAME);
+        }
+    }
+    
+    private void registerVerificationSummary() {
+        if (!isRootProject() || !isPerModuleVerification()) {
+            return;
+        }
+        log("Registering " + VERIFICATION_SUMMARY_TASK_NAME + " ...");
+        getProject().getTasks().register(VERIFICATION_SUMMARY_TASK_NAME, VerificationSummaryTask.class, task -> {
+            task.setGroup("verification");
+            task.setDescription("Summarizes the coverage verification of all modules.");
+            task.getVerifiedModules().from(aggregate(getProject(), COVERAGE_VERIFICATION,
+                name -> !isTestProjectName(name)));
+            if (!isTestProject()) {
+                task.getVerifiedModules().from(getProject().getTasks().named(JACOCO_VERIFICATION_REPORT)
+                    .map(verification -> verification.getOutputs().getFiles()));
+            }
+        });
+    }
+    
+    private Provider<RegularFile> getVerificationRecord() {
+        return getProject().getLayout().getBuildDirectory().file("kit/coverage-verification.txt");
+    }
+    
+    private boolean isPerModuleVerification() {
+        return getBuildConfig(KIT_COVERAGE_PER_MODULE).orElse(false);
+    }
+    
+    private static void addViolationRules(JacocoViolationRulesContainer rules, List<String> counters) {
         for (String counter : counters) {
             rules.rule(rule -> {
                 rule.limit(limit -> {
                     limit.setCounter(counter);
                     limit.setValue("COVEREDRATIO");
-                    limit.setMinimum(BigDecimal.valueOf(0.95));
+                    limit.setMinimum(MINIMUM_COVERED_RATIO);
                 });
             });
         }
@@ -93,27 +265,82 @@ final class JacocoApplier extends ProjectApplier {
                 reports.getCsv().getRequired().set(isRootProject());
             });
             if (isRootProject()) {
-                getProject().allprojects(getAllJacocoFiles(reportTask));
+                addAllJacocoFiles(reportTask);
             }
         };
     }
+    
+    /**
+     * The directories are published lazily, so changes a build script makes to the source set are included
+     */
+    private void registerCoverageElements() {
+        if (isTestProject()) {
+            return;
+        }
+        final Project project = getProject();
+        final TaskCollection<Test> testingTasks = getTestingTasks(project);
+        final NamedDomainObjectProvider<SourceSet> sourceSet = project.getExtensions()
+            .getByType(SourceSetContainer.class).named("main");
+        
+        registerElements(project, COVERAGE_DATA, outgoing -> {
+            outgoing.artifact(project.getLayout().getBuildDirectory().dir("jacoco"), artifact -> {
+                artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE);
+                artifact.builtBy(testingTasks);
+            });
+        });
+        registerElements(project, COVERAGE_CLASSES, outgoing -> {
+            outgoing.artifacts(sourceSet.map(s -> s.getOutput().getClassesDirs().getFiles()), artifact -> {
+                artifact.setType(ArtifactTypeDefinition.JVM_CLASS_DIRECTORY);
+                artifact.builtBy(sourceSet.map(s -> s.getOutput().getClassesDirs()));
+            });
+        });
+        if (isPerModuleVerification()) {
+            registerElements(project, COVERAGE_VERIFICATION, outgoing -> {
+                outgoing.artifact(getVerificationRecord(), artifact -> {
+                    artifact.setType("txt");
+                    artifact.builtBy(project.getTasks().named(JACOCO_VERIFICATION_REPORT));
+                });
+            });
+        }
+        registerElements(project, COVERAGE_SOURCES, outgoing -> {
+            outgoing.artifacts(sourceSet.map(s -> s.getJava().getSrcDirs()),
+                artifact -> artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE));
+        });
+    }
+    
+    private void addAllJacocoFiles(JacocoReportBase rootReport) {
+        addAllCoverageFiles(rootReport, rootReport.getExecutionData(), rootReport.getAdditionalClassDirs(),
+            rootReport.getAdditionalSourceDirs());
+    }
+    
+    private void addAllCoverageFiles(Task rootTask, ConfigurableFileCollection executionData,
+                                     ConfigurableFileCollection classDirs, ConfigurableFileCollection sourceDirs) {
+        addProjectCoverageFiles(rootTask, executionData, classDirs, sourceDirs);
+        
+        final Project project = getProject();
+        final Predicate<String> includeProject = name -> !isTestProjectName(name);
+        executionData.from(aggregate(project, COVERAGE_DATA, includeProject)
+            .getAsFileTree().matching(pattern -> pattern.include("**/*.exec")));
+        classDirs.from(aggregate(project, COVERAGE_CLASSES, includeProject));
+        sourceDirs.from(aggregate(project, COVERAGE_SOURCES, includeProject));
+    }
 
-    private Action<Project> getAllJacocoFiles(JacocoReportBase rootReport) {
-        return project -> {
-            if (isTestProject(project)) {
-                return;
-            }
-            final TaskCollection<Test> testingTasks = getTestingTasks(project);
-            rootReport.shouldRunAfter(testingTasks);
-            rootReport.dependsOn(testingTasks);
-            
-            final SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
-            final SourceSet sourceSet = sourceSets.getByName("main");
-            final DirectoryProperty buildDir = project.getLayout().getBuildDirectory();
-            rootReport.getAdditionalSourceDirs().from(sourceSet.getJava().getSrcDirs());
-            rootReport.getAdditionalClassDirs().from(sourceSet.getOutput().getClassesDirs());
-            rootReport.getExecutionData().from(project.fileTree(buildDir.dir("jacoco")).include("**.exec"));
-        };
+    private void addProjectCoverageFiles(Task rootTask, ConfigurableFileCollection executionData,
+                                         ConfigurableFileCollection classDirs, ConfigurableFileCollection sourceDirs) {
+        if (isTestProject()) {
+            return;
+        }
+        final Project project = getProject();
+        final TaskCollection<Test> testingTasks = getTestingTasks(project);
+        rootTask.shouldRunAfter(testingTasks);
+        rootTask.dependsOn(testingTasks);
+        
+        final NamedDomainObjectProvider<SourceSet> sourceSet = project.getExtensions()
+            .getByType(SourceSetContainer.class).named("main");
+        final DirectoryProperty buildDir = project.getLayout().getBuildDirectory();
+        sourceDirs.from(sourceSet.map(s -> s.getJava().getSrcDirs()));
+        classDirs.from(sourceSet.map(s -> s.getOutput().getClassesDirs()));
+        executionData.from(project.fileTree(buildDir.dir("jacoco")).include("**/*.exec"));
     }
     
     private static TaskCollection<Test> getTestingTasks(Project project) {
@@ -122,6 +349,17 @@ final class JacocoApplier extends ProjectApplier {
         });
     }
     
+    static final String COVERAGE_REPORT_TASK_NAME = "kitCoverageReport";
+    static final String COVERAGE_VERIFICATION_TASK_NAME = "kitCoverageVerification";
+    static final String COVERAGE_SUMMARY_TASK_NAME = "kitCoverageSummary";
+    static final String DIFF_COVERAGE_VERIFICATION_TASK_NAME = "kitDiffCoverageVerification";
+    static final String VERIFICATION_SUMMARY_TASK_NAME = "kitCoverageVerificationSummary";
+    
+    private static final List<String> VERIFIED_COUNTERS = Arrays.asList("LINE", "BRANCH", "CLASS", "INSTRUCTION", "METHOD");
+    private static final BigDecimal MINIMUM_COVERED_RATIO = BigDecimal.valueOf(0.95);
+    private static final String PULL_REQUEST_WORKFLOW = "main-pull-request";
+    private static final String GITHUB_BASE_REF = "GITHUB_BASE_REF";
+    
     private static final String JACOCO_TEST_REPORT = "jacocoTestReport";
     private static final String JACOCO_VERIFICATION_REPORT = "jacocoTestCoverageVerification";
 }
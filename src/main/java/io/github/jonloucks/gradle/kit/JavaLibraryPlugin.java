@@ -16,6 +16,7 @@ public final class JavaLibraryPlugin implements Plugin<Project> {
     
     @Override
     public void apply(Project project) {
+        new ProfileApplier(project).apply();
         new JavaLibraryPluginApplier(project).apply();
         new JavaVersioningApplier(project).apply();
         new TaggingApplier(project).apply();
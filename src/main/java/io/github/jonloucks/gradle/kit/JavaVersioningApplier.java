@@ -1,11 +1,12 @@
 package io.github.jonloucks.gradle.kit;
 
+import org.gradle.api.JavaVersion;
 import org.gradle.api.Project;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.jvm.toolchain.JavaLanguageVersion;
 
-import java.util.Optional;
 import java.util.function.Consumer;
 
 import static io.github.jonloucks.gradle.kit.Configs.*;
@@ -23,18 +24,12 @@ final class JavaVersioningApplier extends ProjectApplier {
         applyOnce(() -> {
             log("Applying Java versions ...");
             
-            getProject().afterEvaluate(x -> {
-                configureJavaVersions();
-            });
+            configureJavaPlugin();
+            configureAllJavaCompiles();
+            configureTestJavaCompiles();
         });
     }
     
-    private void configureJavaVersions() {
-        configureJavaPlugin();
-        configureAllJavaCompiles();
-        configureTestJavaCompiles();
-    }
-    
     private void configureTestJavaCompiles() {
         if (isTestProject()) {
             return;
@@ -47,68 +42,74 @@ final class JavaVersioningApplier extends ProjectApplier {
     }
 
     private void forAllTestJavaCompiles(Consumer<JavaCompile> consumer) {
-        getProject().getTasks().named("compileTestJava", JavaCompile.class).configure(consumer::accept);
+        getProject().getTasks().named("compileTestJava", JavaCompile.class)
+            .configure(profiled("configure compileTestJava", consumer::accept));
     }
     
     private void forAllJavaCompiles(Consumer<JavaCompile> consumer) {
-        getProject().getTasks().withType(JavaCompile.class).configureEach(consumer::accept);
+        getProject().getTasks().withType(JavaCompile.class)
+            .configureEach(profiled("configure JavaCompile", consumer::accept));
     }
     
+    /**
+     * Source and target compatibility are plain values, they are set on each task when it is realized
+     */
     private void configureJavaCompile(JavaCompile compile) {
-        getReleaseVersion().ifPresent(x -> compile.getOptions().getRelease().set(x.asInt()));
+        compile.getOptions().getRelease().set(getReleaseVersion());
+        compile.setSourceCompatibility(toCompatibility(getSourceCompatibility()));
+        compile.setTargetCompatibility(toCompatibility(getTargetCompatibility()));
         compile.getOptions().setCompilerArgs(adjustCompileArguments(compile.getOptions().getCompilerArgs()));
     }
     
     private void configureTestJavaCompile(JavaCompile compile) {
-        getTestReleaseVersion().ifPresent(x -> compile.getOptions().getRelease().set(x.asInt()));
+        compile.getOptions().getRelease().set(getTestReleaseVersion());
     }
     
     private void configureJavaPlugin() {
         final JavaPluginExtension javaPlugin = getProject().getExtensions().getByType(JavaPluginExtension.class);
         javaPlugin.getModularity().getInferModulePath().set(true);
-        getSourceCompatibility().ifPresent(javaPlugin::setSourceCompatibility);
-        getTargetCompatibility().ifPresent(javaPlugin::setTargetCompatibility);
-        getCompilerVersion().ifPresent(javaPlugin.getToolchain().getLanguageVersion()::set);
+        javaPlugin.getToolchain().getLanguageVersion().set(getConfigProvider(KIT_JAVA_COMPILER_VERSION));
         javaPlugin.withJavadocJar();
         javaPlugin.withSourcesJar();
     }
     
-    private Optional<JavaLanguageVersion> getCompilerVersion() {
-        return Optional.of(requireConfig(KIT_JAVA_COMPILER_VERSION));
-    }
-    
-    private Optional<JavaLanguageVersion> getSourceCompatibility() {
+    private JavaLanguageVersion getSourceCompatibility() {
         if (isTestProject()) {
-            return Optional.of(requireConfig(KIT_JAVA_TEST_SOURCE_VERSION));
+            return requireConfig(KIT_JAVA_TEST_SOURCE_VERSION);
         } else {
-            return Optional.of(requireConfig(KIT_JAVA_SOURCE_VERSION));
+            return requireConfig(KIT_JAVA_SOURCE_VERSION);
         }
     }
     
-    private Optional<JavaLanguageVersion> getTargetCompatibility() {
+    private JavaLanguageVersion getTargetCompatibility() {
         if (isTestProject()) {
-            return Optional.of(requireConfig(KIT_JAVA_TEST_TARGET_VERSION));
+            return requireConfig(KIT_JAVA_TEST_TARGET_VERSION);
         } else {
-            return Optional.of(requireConfig(KIT_JAVA_TARGET_VERSION));
+            return requireConfig(KIT_JAVA_TARGET_VERSION);
         }
     }
     
-    private Optional<JavaLanguageVersion> getReleaseVersion() {
+    private static String toCompatibility(JavaLanguageVersion version) {
+        return JavaVersion.toVersion(version.asInt()).toString();
+    }
+    
+    private Provider<Integer> getReleaseVersion() {
         if (isTestProject()) {
             return getTestReleaseVersion();
         } else {
-            return Optional.of(requireConfig(KIT_JAVA_TARGET_VERSION));
+            return getConfigProvider(KIT_JAVA_TARGET_VERSION).map(JavaLanguageVersion::asInt);
         }
     }
     
-    private Optional<JavaLanguageVersion> getTestReleaseVersion() {
-        final JavaLanguageVersion testVersion = requireConfig(KIT_JAVA_TEST_TARGET_VERSION);
-        final JavaLanguageVersion implementationVersion = requireConfig(KIT_JAVA_TARGET_VERSION);
-        if (testVersion.compareTo(implementationVersion) > 0) {
-            return Optional.of(testVersion);
-        } else {
-            return Optional.of(implementationVersion);
-        }
+    private Provider<Integer> getTestReleaseVersion() {
+        return getProject().getProviders().provider(() -> {
+            final JavaLanguageVersion testVersion = requireConfig(KIT_JAVA_TEST_TARGET_VERSION);
+            final JavaLanguageVersion implementationVersion = requireConfig(KIT_JAVA_TARGET_VERSION);
+            if (testVersion.compareTo(implementationVersion) > 0) {
+                return testVersion.asInt();
+            } else {
+                return implementationVersion.asInt();
+            }
+        });
     }
 }
-
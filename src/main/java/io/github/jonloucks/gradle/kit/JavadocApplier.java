@@ -15,12 +15,10 @@ final class JavadocApplier extends ProjectApplier {
         applyOnce(() -> {
             log("Applying javadoc...");
             
-            getProject().afterEvaluate(project -> {
-                project.getTasks().withType(Javadoc.class).configureEach(javadoc -> {
-                    javadoc.setFailOnError(true);
-                    javadoc.getModularity().getInferModulePath().set(true);
-                    javadoc.options(MinimalJavadocOptions::showFromPublic);
-                });
+            getProject().getTasks().withType(Javadoc.class).configureEach(javadoc -> {
+                javadoc.setFailOnError(true);
+                javadoc.getModularity().getInferModulePath().set(true);
+                javadoc.options(MinimalJavadocOptions::showFromPublic);
             });
         });
     }
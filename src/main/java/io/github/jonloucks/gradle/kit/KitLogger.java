@@ -0,0 +1,49 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.api.logging.Logger;
+
+import java.util.function.Supplier;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Kit logging on top of the Gradle Logger.
+ * Messages are only built when kit logging is enabled and the level is enabled by Gradle.
+ */
+final class KitLogger {
+    
+    KitLogger(Logger logger, boolean enabled) {
+        this.logger = nullCheck(logger, "Logger must be present.");
+        this.enabled = enabled;
+    }
+    
+    boolean isEnabled() {
+        return enabled;
+    }
+    
+    boolean isEnabled(LogLevel level) {
+        return enabled && logger.isEnabled(level);
+    }
+    
+    void lifecycle(Supplier<String> message) {
+        log(LogLevel.LIFECYCLE, message);
+    }
+    
+    void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+    
+    void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+    
+    void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            logger.log(level, message.get());
+        }
+    }
+    
+    private final Logger logger;
+    private final boolean enabled;
+}
@@ -1,19 +1,28 @@
 package io.github.jonloucks.gradle.kit;
 
-import org.gradle.api.Action;
+import io.github.jonloucks.variants.api.Variant;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.publish.PublishingExtension;
-import org.gradle.api.tasks.bundling.Tar;
-import org.gradle.api.tasks.bundling.Zip;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.PublishToMavenRepository;
+import org.gradle.api.tasks.util.PatternFilterable;
 
-import java.io.File;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
+import static io.github.jonloucks.gradle.kit.Aggregations.STAGING_CHECKSUMS;
+import static io.github.jonloucks.gradle.kit.Aggregations.STAGING_REPOSITORY;
+import static io.github.jonloucks.gradle.kit.Aggregations.aggregate;
+import static io.github.jonloucks.gradle.kit.Aggregations.registerElements;
 import static io.github.jonloucks.gradle.kit.Configs.*;
-import static io.github.jonloucks.gradle.kit.Internal.*;
+import static io.github.jonloucks.gradle.kit.Checksums.isChecksumFileName;
 
 /**
  * Extension of the Gradle 'maven-publish' plugin
@@ -25,6 +34,7 @@ public final class MavenPublishPlugin implements Plugin<Project> {
      */
     @Override
     public void apply(Project project) {
+        new ProfileApplier(project).apply();
         new Applier(project).apply();
     }
     
@@ -36,32 +46,67 @@ public final class MavenPublishPlugin implements Plugin<Project> {
         
         @Override
         void apply() {
-            applyMavenPublishPlugin();
-            
-            getProject().afterEvaluate(x -> {
+            profile("apply", () -> {
+                applyMavenPublishPlugin();
+                
                 if (isRootProject()) {
                     registerCreatePublisherBundle();
+                    registerCreatePublisherBundles();
                     registerUploadPublisherBundle();
                 }
                 
                 createStagingRepository();
-                configureChecksums();
+                registerStagingSync();
+                registerStagingChecksums();
+                registerStagingElements();
             });
         }
         
-        @SuppressWarnings("Convert2Lambda") // gradle does not like lambda here
-        private void configureChecksums() {
-            getProject().getTasks().withType(Zip.class).configureEach(new Action<>() {
-                @Override
-                public void execute(Zip zip) {
-                    zip.doLast(new Action<>() {
-                        @Override
-                        public void execute(Task task) {
-                            createChecksums(zip.getArchiveFile().get().getAsFile());
-                        }
-                    });
+        private void registerStagingChecksums() {
+            getProject().getTasks().register(STAGING_CHECKSUMS_TASK_NAME, ChecksumsTask.class, task -> {
+                task.setDescription("Creates the checksums of the staged artifacts.");
+                task.getSourceFiles()
+                    .from(getProject().fileTree(getStagingDirectory()).matching(this::excludeChecksums))
+                    .builtBy(STAGING_SYNC_TASK_NAME);
+                task.getChecksumsDirectory().set(getStagingChecksumsDirectory());
+            });
+        }
+        
+        /**
+         * The staging publications are published in place, then only changes of the current publications
+         * are synced to staging. Every staging publish is finalized by the sync, so 'staging-deploy' is current
+         * after any of them.
+         */
+        private void registerStagingSync() {
+            getProject().getTasks().withType(PublishToMavenRepository.class).configureEach(task -> {
+                if (task.getName().endsWith("To" + STAGING_REPOSITORY_NAME + "Repository")) {
+                    task.finalizedBy(STAGING_SYNC_TASK_NAME);
                 }
             });
+            getProject().getTasks().register(STAGING_SYNC_TASK_NAME, StagingSyncTask.class, task -> {
+                task.setDescription("Copies changed staging artifacts and prunes stale ones.");
+                task.dependsOn(STAGING_PUBLISH_TASK_NAME);
+                task.getPublishedDirectory().set(getStagingPublishDirectory());
+                task.getPublicationPaths().set(getProject().provider(this::getPublicationPaths));
+                task.getStagingDirectory().set(getStagingDirectory());
+                task.getHardLinks().convention(requireConfig(KIT_STAGING_HARD_LINKS));
+            });
+        }
+        
+        /**
+         * @return the 'group/artifact/version' directory of each maven publication
+         */
+        private List<String> getPublicationPaths() {
+            final List<String> paths = new ArrayList<>();
+            getProject().getExtensions().getByType(PublishingExtension.class).getPublications()
+                .withType(MavenPublication.class).forEach(publication -> paths.add(
+                    publication.getGroupId().replace('.', '/') + "/" + publication.getArtifactId()
+                        + "/" + publication.getVersion()));
+            return paths;
+        }
+        
+        private void excludeChecksums(PatternFilterable pattern) {
+            pattern.exclude(element -> !element.isDirectory() && isChecksumFileName(element.getName()));
         }
         
         private void createStagingRepository() {
@@ -69,13 +114,40 @@ public final class MavenPublishPlugin implements Plugin<Project> {
             getProject().getExtensions().configure(PublishingExtension.class, extension -> {
                 extension.repositories(r -> {
                     r.maven(maven -> {
-                        maven.setName("LocalMavenWithChecksums");
-                        maven.setUrl(getProject().getLayout().getBuildDirectory().dir("staging-deploy"));
+                        maven.setName(STAGING_REPOSITORY_NAME);
+                        maven.setUrl(getStagingPublishDirectory());
                     });
                 });
             });
         }
         
+        private void registerStagingElements() {
+            registerElements(getProject(), STAGING_REPOSITORY, outgoing -> {
+                outgoing.artifact(getStagingDirectory(), artifact -> {
+                    artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE);
+                    artifact.builtBy(STAGING_SYNC_TASK_NAME);
+                });
+            });
+            registerElements(getProject(), STAGING_CHECKSUMS, outgoing -> {
+                outgoing.artifact(getStagingChecksumsDirectory(), artifact -> {
+                    artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE);
+                    artifact.builtBy(STAGING_CHECKSUMS_TASK_NAME);
+                });
+            });
+        }
+        
+        private Provider<Directory> getStagingDirectory() {
+            return getProject().getLayout().getBuildDirectory().dir("staging-deploy");
+        }
+        
+        private Provider<Directory> getStagingPublishDirectory() {
+            return getProject().getLayout().getBuildDirectory().dir("staging-publish");
+        }
+        
+        private Provider<Directory> getStagingChecksumsDirectory() {
+            return getProject().getLayout().getBuildDirectory().dir("staging-checksums");
+        }
+        
         private void applyMavenPublishPlugin() {
             log("Applying maven-publish plugin...");
             getProject().getPlugins().apply("maven-publish");
@@ -83,41 +155,108 @@ public final class MavenPublishPlugin implements Plugin<Project> {
         
         private void registerCreatePublisherBundle() {
             log("Registering " + CREATE_BUNDLE_TASK_NAME + " ...");
-            getProject().getTasks().register(CREATE_BUNDLE_TASK_NAME, Tar.class).configure(tar -> {
-                tar.getArchiveBaseName().set(getProject().getGroup().toString());
-                tar.getArchiveVersion().set(getProject().getVersion().toString());
-                tar.getDestinationDirectory().set(getProject().getLayout().getBuildDirectory().dir("distributions"));
-                getProject().allprojects(p -> tar.from(p.getLayout().getBuildDirectory().dir("staging-deploy")));
+            getProject().getTasks().register(CREATE_BUNDLE_TASK_NAME, PublisherBundleTask.class, task -> {
+                final String baseName = getBundleBaseName();
+                task.getFormat().convention(getConfig(KIT_BUNDLE_FORMAT).orElse(BundleFormat.TAR));
+                task.getBundleFile().convention(getProject().getLayout().getBuildDirectory()
+                    .file(task.getFormat().map(format -> "distributions/" + baseName + "." + format.getExtension())));
+                addBundleSources(task.getSources());
+            });
+        }
+        
+        private void registerCreatePublisherBundles() {
+            log("Registering " + CREATE_BUNDLES_TASK_NAME + " ...");
+            getProject().getTasks().register(CREATE_BUNDLES_TASK_NAME, PublisherBundlesTask.class, task -> {
+                task.setDescription("Creates the publisher bundles split by module into size bounded bundles.");
+                task.getFormat().convention(getConfig(KIT_BUNDLE_FORMAT).orElse(BundleFormat.TAR));
+                task.getBaseName().convention(getBundleBaseName());
+                task.getMaxSize().convention(getConfig(KIT_BUNDLE_SPLIT_SIZE).orElse(DEFAULT_SPLIT_SIZE) * 1024L * 1024L);
+                task.getBundlesDirectory().convention(getProject().getLayout().getBuildDirectory()
+                    .dir("distributions/bundles"));
+                addBundleSources(task.getSources());
             });
         }
         
-        private static String createTimestamp() {
-            return ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss XXX"));
+        private void addBundleSources(ConfigurableFileCollection sources) {
+            sources.from(getProject().fileTree(getStagingDirectory()).matching(this::excludeChecksums))
+                .builtBy(STAGING_SYNC_TASK_NAME);
+            sources.from(aggregate(getProject(), STAGING_REPOSITORY, name -> true)
+                .getAsFileTree().matching(this::excludeChecksums));
+            sources.from(getProject().getTasks().named(STAGING_CHECKSUMS_TASK_NAME));
+            sources.from(aggregate(getProject(), STAGING_CHECKSUMS, name -> true));
         }
         
         private void registerUploadPublisherBundle() {
             log("Registering " + UPLOAD_BUNDLE_TASK_NAME + " ...");
             
-            getProject().getTasks().register(UPLOAD_BUNDLE_TASK_NAME).configure(task -> {
-                task.doLast(action -> {
-                    uploadBundle(getEnvironment(), getBundleName(), getBundleFile());
-                });
+            UploadService.register(getProject());
+            getProject().getTasks().register(UPLOAD_BUNDLE_TASK_NAME, UploadBundleTask.class, task -> {
+                task.getBundleFiles().from(getBundleFiles());
+                task.getParallelism().convention(requireConfig(KIT_UPLOAD_PARALLELISM));
+                task.getBundleName().set(getBundleName());
+                task.getCoordinates().set(getProject().getGroup() + ":" + getProject().getVersion());
+                task.getLedgerFile().convention(getProject().getLayout().getProjectDirectory()
+                    .file(".gradle/kit/upload-ledger.txt"));
+                task.getForce().convention(false);
+                putSetting(task, KIT_OSSRH_URL);
+                task.getUsername().set(getCredentialProvider(KIT_OSSRH_USERNAME));
+                task.getPassword().set(getCredentialProvider(KIT_OSSRH_PASSWORD));
             });
         }
         
+        private void putSetting(UploadBundleTask task, Variant<String> variant) {
+            getConfig(variant).ifPresent(value -> task.getSettings().put(variant.getKeys().get(0), value));
+        }
+        
+        /**
+         * Credentials are only read when the upload runs, so they are never stored in the configuration cache.
+         * The lookup order per key matches the variants: environment, system properties, then Gradle properties.
+         */
+        private Provider<String> getCredentialProvider(Variant<String> variant) {
+            final ProviderFactory providers = getProject().getProviders();
+            Provider<String> credential = null;
+            for (String key : variant.getKeys()) {
+                final Provider<String> byKey = providers.environmentVariable(key)
+                    .orElse(providers.systemProperty(key))
+                    .orElse(providers.gradleProperty(key));
+                credential = null == credential ? byKey : credential.orElse(byKey);
+            }
+            return credential;
+        }
+        
         private String getAuthor() {
             return requireConfig(KIT_OSSRH_AUTHOR);
         }
         
-        private File getBundleFile() {
-            return getProject().file("build/distributions/" + getProject().getGroup() + "-" + getProject().getVersion() + ".tar");
+        /**
+         * @return the size bounded bundles when a split size is configured, otherwise the single bundle
+         */
+        private FileCollection getBundleFiles() {
+            if (getConfig(KIT_BUNDLE_SPLIT_SIZE).isPresent()) {
+                return getProject().fileTree(getProject().getTasks()
+                    .named(CREATE_BUNDLES_TASK_NAME, PublisherBundlesTask.class)
+                    .flatMap(PublisherBundlesTask::getBundlesDirectory)).builtBy(CREATE_BUNDLES_TASK_NAME);
+            }
+            return getProject().files(getProject().getTasks()
+                .named(CREATE_BUNDLE_TASK_NAME, PublisherBundleTask.class)
+                .flatMap(PublisherBundleTask::getBundleFile));
+        }
+        
+        private String getBundleBaseName() {
+            return getProject().getGroup() + "-" + getProject().getVersion();
         }
         
         private String getBundleName() {
-            return getProject().getGroup() + "-" + getProject().getVersion() + " by " + getAuthor() + " @ " + createTimestamp();
+            return getBundleBaseName() + " by " + getAuthor();
         }
 
+        private static final String STAGING_REPOSITORY_NAME = "LocalMavenWithChecksums";
+        private static final String STAGING_PUBLISH_TASK_NAME = "publishAllPublicationsTo" + STAGING_REPOSITORY_NAME + "Repository";
+        private static final String STAGING_SYNC_TASK_NAME = "syncStagingRepository";
+        private static final String STAGING_CHECKSUMS_TASK_NAME = "createStagingChecksums";
         private static final String CREATE_BUNDLE_TASK_NAME = "createPublisherBundle";
+        private static final String CREATE_BUNDLES_TASK_NAME = "createPublisherBundles";
+        private static final int DEFAULT_SPLIT_SIZE = 256;
         private static final String UPLOAD_BUNDLE_TASK_NAME = "uploadPublisherBundle";
     }
 }
@@ -0,0 +1,36 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Project;
+
+/**
+ * Registers the 'kitProfile' report on the root project.
+ * The configuration cost of each applier is only recorded when KIT_PROFILE_ENABLED is true.
+ */
+final class ProfileApplier extends ProjectApplier {
+    
+    ProfileApplier(Project project) {
+        super(project);
+    }
+    
+    @Override
+    void apply() {
+        applyOnce(() -> {
+            if (isRootProject()) {
+                registerProfileTask();
+            }
+        });
+    }
+    
+    private void registerProfileTask() {
+        final Project project = getProject();
+        ProfileService.register(project);
+        project.getTasks().register(PROFILE_TASK_NAME, ProfileTask.class, task -> {
+            task.setGroup("help");
+            task.setDescription("Reports the most expensive kit applier configurations.");
+            task.getTop().convention(20);
+            task.getReportFile().convention(project.getLayout().getBuildDirectory().file("reports/kit/profile.txt"));
+        });
+    }
+    
+    static final String PROFILE_TASK_NAME = "kitProfile";
+}
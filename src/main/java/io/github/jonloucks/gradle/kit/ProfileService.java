@@ -0,0 +1,153 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Build scoped collector of the configuration cost of each applier.
+ * Only used when profiling is enabled with KIT_PROFILE_ENABLED.
+ */
+abstract class ProfileService implements BuildService<BuildServiceParameters.None> {
+
+    static final String SERVICE_NAME = "io.github.jonloucks.gradle.kit.profile";
+
+    static Provider<ProfileService> register(Project project) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        return validProject.getGradle().getSharedServices().registerIfAbsent(SERVICE_NAME, ProfileService.class);
+    }
+
+    /**
+     * Runs the block and records its self wall time, allocated bytes and realized tasks.
+     * The cost of profiled blocks nested in the block is recorded by them and left out of the block's record,
+     * so summing the records counts each cost once.
+     */
+    void profile(Project project, String applierName, String phase, Runnable block) {
+        final AtomicLong realizedTasks = getRealizedTasks(project);
+        final Deque<Frame> frames = nestedFrames.get();
+        final Frame frame = new Frame(project.getPath());
+        frames.push(frame);
+        final long startRealized = realizedTasks.get();
+        final long startAllocated = getAllocatedBytes();
+        final long startNanos = System.nanoTime();
+        try {
+            block.run();
+        } finally {
+            final long nanos = System.nanoTime() - startNanos;
+            final long allocated = startAllocated < 0 ? -1 : getAllocatedBytes() - startAllocated;
+            final long realized = realizedTasks.get() - startRealized;
+            frames.pop();
+            records.add(new ProfileRecord(frame.projectPath, applierName, phase, nanos - frame.nestedNanos,
+                allocated < 0 ? -1 : allocated - frame.nestedAllocatedBytes, realized - frame.nestedRealizedTasks));
+            final Frame parent = frames.peek();
+            if (null != parent) {
+                parent.nestedNanos += nanos;
+                parent.nestedAllocatedBytes += Math.max(allocated, 0);
+                if (parent.projectPath.equals(frame.projectPath)) {
+                    parent.nestedRealizedTasks += realized;
+                }
+            }
+        }
+    }
+
+    List<ProfileRecord> getRecords() {
+        return new ArrayList<>(records);
+    }
+
+    static final class ProfileRecord {
+        ProfileRecord(String projectPath, String applierName, String phase, long nanos, long allocatedBytes, long realizedTasks) {
+            this.projectPath = projectPath;
+            this.applierName = applierName;
+            this.phase = phase;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.realizedTasks = realizedTasks;
+        }
+
+        String getProjectPath() {
+            return projectPath;
+        }
+
+        String getApplierName() {
+            return applierName;
+        }
+
+        String getPhase() {
+            return phase;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the bytes allocated by the configuring thread, or -1 if the JVM can't measure it
+         */
+        long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        long getRealizedTasks() {
+            return realizedTasks;
+        }
+
+        private final String projectPath;
+        private final String applierName;
+        private final String phase;
+        private final long nanos;
+        private final long allocatedBytes;
+        private final long realizedTasks;
+    }
+
+    /**
+     * The costs of the profiled blocks running nested in a profiled block on the same thread
+     */
+    private static final class Frame {
+        private Frame(String projectPath) {
+            this.projectPath = projectPath;
+        }
+
+        private final String projectPath;
+        private long nestedNanos;
+        private long nestedAllocatedBytes;
+        private long nestedRealizedTasks;
+    }
+
+    private AtomicLong getRealizedTasks(Project project) {
+        return realizedTasks.computeIfAbsent(project.getPath(), path -> {
+            final AtomicLong counter = new AtomicLong();
+            project.getTasks().configureEach(task -> counter.incrementAndGet());
+            return counter;
+        });
+    }
+
+    private static long getAllocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private final Queue<ProfileRecord> records = new ConcurrentLinkedQueue<>();
+    private final Map<String, AtomicLong> realizedTasks = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Frame>> nestedFrames = ThreadLocal.withInitial(ArrayDeque::new);
+}
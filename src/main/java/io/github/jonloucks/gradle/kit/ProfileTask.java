@@ -0,0 +1,100 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.ProfileService.ProfileRecord;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reports the most expensive applier configurations recorded by the ProfileService.
+ * The records hold self costs, nested profiled blocks are reported under their own applier.
+ */
+abstract class ProfileTask extends DefaultTask {
+
+    @ServiceReference(ProfileService.SERVICE_NAME)
+    public abstract Property<ProfileService> getProfileService();
+
+    /**
+     * @return the count of entries to list in each section
+     */
+    @Input
+    public abstract Property<Integer> getTop();
+
+    @Internal
+    public abstract RegularFileProperty getReportFile();
+
+    @TaskAction
+    public void report() {
+        final List<ProfileRecord> records = getProfileService().get().getRecords();
+        final String report = records.isEmpty()
+            ? "No kit profile recorded, enable it with KIT_PROFILE_ENABLED=true.\n"
+            : formatReport(records, getTop().get());
+
+        getLogger().lifecycle(report);
+        writeReport(getReportFile().get().getAsFile(), report);
+    }
+
+    static String formatReport(List<ProfileRecord> records, int top) {
+        final StringBuilder builder = new StringBuilder();
+
+        final Map<String, ProfileRecord> byApplier = new LinkedHashMap<>();
+        for (ProfileRecord record : records) {
+            byApplier.merge(record.getApplierName(), record, ProfileTask::sum);
+        }
+        builder.append(String.format("Kit configuration profile, %d records%n", records.size()));
+        builder.append(String.format("%nBy applier%n"));
+        appendRecords(builder, byApplier.values().stream(), top, false);
+        builder.append(String.format("%nBy applier and project%n"));
+        appendRecords(builder, records.stream(), top, true);
+
+        return builder.toString();
+    }
+
+    private static void appendRecords(StringBuilder builder, Stream<ProfileRecord> records, int top,
+                                      boolean withProject) {
+        builder.append(String.format("%12s %14s %8s  %s%n", "self ms", "allocated KiB", "tasks", "applier"));
+        records.sorted(Comparator.comparingLong(ProfileRecord::getNanos).reversed()).limit(top).forEach(record -> {
+            builder.append(String.format("%12.3f %14s %8d  %s%s%n",
+                record.getNanos() / 1e6,
+                record.getAllocatedBytes() < 0 ? "n/a" : Long.toString(record.getAllocatedBytes() / 1024),
+                record.getRealizedTasks(),
+                record.getApplierName(),
+                withProject ? " " + record.getPhase() + " " + record.getProjectPath() : ""));
+        });
+    }
+
+    private static ProfileRecord sum(ProfileRecord left, ProfileRecord right) {
+        final long allocated = left.getAllocatedBytes() < 0 || right.getAllocatedBytes() < 0
+            ? -1 : left.getAllocatedBytes() + right.getAllocatedBytes();
+        return new ProfileRecord("", left.getApplierName(), "", left.getNanos() + right.getNanos(), allocated,
+            left.getRealizedTasks() + right.getRealizedTasks());
+    }
+
+    private static void writeReport(File file, String report) {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), UTF_8)) {
+                writer.write(report);
+            }
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to write kit profile report.", thrown);
+        }
+    }
+}
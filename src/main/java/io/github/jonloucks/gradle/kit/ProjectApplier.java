@@ -2,25 +2,25 @@ package io.github.jonloucks.gradle.kit;
 
 import io.github.jonloucks.variants.api.Environment;
 import io.github.jonloucks.variants.api.Variant;
+import org.gradle.api.Action;
 import org.gradle.api.Project;
+import org.gradle.api.logging.LogLevel;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 import org.gradle.api.provider.Provider;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
-import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
 import static java.lang.Boolean.TRUE;
 
 abstract class ProjectApplier {
     ProjectApplier(Project project) {
         this.project = project;
         this.applierName = getClass().getName();
-        this.environment = createEnvironment( b -> b //
-            .addSystemEnvironmentSource() //
-            .addSource(this::projectEnvironmentVariable) //
-            .addSystemPropertiesSource() //
-            .addSource(this::projectProperty) //
-        );
+        this.variants = VariantsService.register(project).get();
+        this.environment = variants.getEnvironment(project);
+        this.logger = new KitLogger(project.getLogger(),
+            variants.findBuildVariance(project, Configs.KIT_LOG_ENABLED).orElse(false));
     }
 
     abstract void apply();
@@ -30,11 +30,11 @@ abstract class ProjectApplier {
         final ExtraPropertiesExtension extension = project.getExtensions().getExtraProperties();
         if (extension.has(name) &&
             TRUE.equals(extension.get(name))) {
-            log("Project " + name + " is already applied");
+            log(() -> "Project " + name + " is already applied");
         } else {
             extension.set(name, TRUE);
             try {
-                block.run();
+                profile("apply", block);
             } catch (Exception thrown) {
                 extension.set(name, thrown);
                 throw thrown;
@@ -42,6 +42,31 @@ abstract class ProjectApplier {
         }
     }
     
+    /**
+     * Runs the block, recording its cost when profiling is enabled
+     */
+    final void profile(String phase, Runnable block) {
+        if (isProfileEnabled()) {
+            ProfileService.register(project).get().profile(project, getProfileName(), phase, block);
+        } else {
+            block.run();
+        }
+    }
+    
+    /**
+     * Wraps a lazy configuration action, recording its cost when profiling is enabled
+     */
+    final <T> Action<T> profiled(String phase, Action<T> action) {
+        if (isProfileEnabled()) {
+            return target -> profile(phase, () -> action.execute(target));
+        }
+        return action;
+    }
+    
+    final void afterEvaluate(Runnable block) {
+        project.afterEvaluate(x -> profile("afterEvaluate", block));
+    }
+    
     final Project getProject() {
         return project;
     }
@@ -55,45 +80,66 @@ abstract class ProjectApplier {
     }
     
     final boolean isTestProject(Project project) {
-        return project.getName().endsWith("-test") || project.getName().endsWith("-tests");
+        return isTestProjectName(project.getName());
+    }
+    
+    final boolean isTestProjectName(String name) {
+        return name.endsWith("-test") || name.endsWith("-tests");
     }
 
     final <T> Optional<T> getConfig(Variant<T> variant) {
         return environment.findVariance(variant);
     }
     
+    /**
+     * Resolves a build wide variant once per build, see {@link VariantsService#BUILD_VARIANTS}
+     */
+    final <T> Optional<T> getBuildConfig(Variant<T> variant) {
+        return variants.findBuildVariance(project, variant);
+    }
+    
+    final <T> Provider<T> getConfigProvider(Variant<T> variant) {
+        return project.getProviders().provider(() -> getConfig(variant).orElse(null));
+    }
+    
     final <T> T requireConfig(Variant<T> variant) {
         return environment.getVariance(variant);
     }
     
     final void log(String text) {
-        if (isLogEnabled()) {
-            System.out.println(text);
-        }
+        logger.lifecycle(() -> text);
+    }
+    
+    /**
+     * Logs at lifecycle level, the message is only built when logging is enabled
+     */
+    final void log(Supplier<String> message) {
+        logger.lifecycle(message);
+    }
+    
+    final void log(LogLevel level, Supplier<String> message) {
+        logger.log(level, message);
     }
     
     final boolean isLogEnabled() {
-        return environment.findVariance(Configs.KIT_LOG_ENABLED).orElse(false);
+        return logger.isEnabled();
     }
     
-    final Environment getEnvironment() {
-        return environment;
+    final boolean isProfileEnabled() {
+        return variants.findBuildVariance(project, Configs.KIT_PROFILE_ENABLED).orElse(false);
     }
     
-    private Optional<CharSequence> projectProperty(String key) {
-        return Optional.ofNullable(project.findProperty(key)).map(Object::toString);
+    final Environment getEnvironment() {
+        return environment;
     }
     
-    private Optional<CharSequence> projectEnvironmentVariable(String key) {
-        final Provider<String> variable = project.getProviders().environmentVariable(key);
-        if (variable.isPresent()) {
-            return Optional.of(variable.get());
-        } else {
-            return Optional.empty();
-        }
+    private String getProfileName() {
+        return applierName.substring(applierName.lastIndexOf('.') + 1);
     }
     
     private final Project project;
+    private final VariantsService variants;
     private final Environment environment;
+    private final KitLogger logger;
     private final String applierName;
 }
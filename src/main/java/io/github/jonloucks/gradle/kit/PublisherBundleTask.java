@@ -0,0 +1,58 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the publisher bundle from the staged repositories.
+ * Paths inside the bundle are relative to each staging directory, the first file for a path wins.
+ * The bundle only depends on the relative paths and contents of the sources, so it can be restored from the build cache.
+ */
+@CacheableTask
+abstract class PublisherBundleTask extends DefaultTask {
+
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSources();
+
+    @Input
+    public abstract Property<BundleFormat> getFormat();
+
+    @OutputFile
+    public abstract RegularFileProperty getBundleFile();
+
+    @TaskAction
+    public void createBundle() {
+        BundleWriter.write(getFormat().get(), collectEntries(getSources()), getBundleFile().get().getAsFile());
+    }
+
+    static List<Entry> collectEntries(FileCollection sources) {
+        final List<Entry> entries = new ArrayList<>();
+        final Set<String> paths = new HashSet<>();
+        sources.getAsFileTree().visit(details -> {
+            final String path = details.getRelativePath().getPathString();
+            if (!details.isDirectory() && paths.add(path)) {
+                entries.add(new Entry(path, details.getFile()));
+            }
+        });
+        return entries;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Creates size bounded publisher bundles from the staged repositories, grouped by module.
+ * Bundles are named '&lt;base name&gt;-&lt;number&gt;.&lt;extension&gt;' and can be uploaded independently.
+ */
+@CacheableTask
+abstract class PublisherBundlesTask extends DefaultTask {
+
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSources();
+
+    @Input
+    public abstract Property<BundleFormat> getFormat();
+
+    @Input
+    public abstract Property<String> getBaseName();
+
+    /**
+     * @return the maximum bundle size in bytes, only exceeded by a single module larger than it
+     */
+    @Input
+    public abstract Property<Long> getMaxSize();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getBundlesDirectory();
+
+    @Inject
+    public abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void createBundles() {
+        final File bundlesDirectory = getBundlesDirectory().get().getAsFile();
+        final BundleFormat format = getFormat().get();
+        // bundles from a previous run would be uploaded with the new ones
+        getFileSystemOperations().delete(spec -> spec.delete(bundlesDirectory));
+        bundlesDirectory.mkdirs();
+
+        final List<List<Entry>> bundles = BundleSplitter.split(
+            PublisherBundleTask.collectEntries(getSources()), getMaxSize().get());
+        for (int i = 0; i < bundles.size(); i++) {
+            final String fileName = getBaseName().get() + "-" + (i + 1) + "." + format.getExtension();
+            BundleWriter.write(format, bundles.get(i), new File(bundlesDirectory, fileName));
+        }
+        getLogger().info("Created {} bundles in {}.", bundles.size(), bundlesDirectory);
+    }
+}
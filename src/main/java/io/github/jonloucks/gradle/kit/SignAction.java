@@ -0,0 +1,151 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.Task;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.plugins.signing.Sign;
+import org.gradle.plugins.signing.Signature;
+import org.gradle.plugins.signing.signatory.Signatory;
+import org.gradle.plugins.signing.type.SignatureType;
+import org.gradle.plugins.signing.type.BinarySignatureType;
+import org.gradle.plugins.signing.type.pgp.ArmoredSignatureType;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Replaces the serial 'generate' action of a 'signing' task, each signature is signed by a worker
+ * with the signatory and signature type of that signature.
+ * Unchanged files signed with a kit key reuse their signature from the signature cache when it is enabled.
+ * Signatures without a signatory or with another signature type are generated serially, as the task would.
+ */
+abstract class SignAction implements Action<Task> {
+
+    @Inject
+    public abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * @return the signing service, absent when the kit key is not configured
+     */
+    public abstract Property<SigningService> getSigningService();
+
+    @Override
+    public void execute(Task task) {
+        final Sign sign = (Sign) task;
+        if (!getSigningService().isPresent()) {
+            sign.generate();
+            return;
+        }
+        final SigningService service = getSigningService().get();
+        final List<String> signatureKeys = new ArrayList<>();
+        try {
+            final WorkQueue workQueue = getWorkerExecutor().noIsolation();
+            for (Signature signature : sign.getSignaturesByKey().values()) {
+                final Signatory signatory = signature.getSignatory();
+                final SignatureType signatureType = signature.getSignatureType();
+                if (null == signature.getToSign() || null == signatory || null == signatureType
+                    || !isSupported(signatureType.getExtension())) {
+                    signature.generate();
+                    continue;
+                }
+                final String signatureKey = sign.getPath() + "#" + signatureKeys.size();
+                service.putSignatory(signatureKey, signatory);
+                signatureKeys.add(signatureKey);
+                workQueue.submit(SignWorkAction.class, parameters -> {
+                    parameters.getFile().set(signature.getToSign());
+                    parameters.getSignatureFile().set(signature.getFile());
+                    parameters.getExtension().set(signatureType.getExtension());
+                    parameters.getSigningService().set(getSigningService());
+                    parameters.getSignatureKey().set(signatureKey);
+                    parameters.getKeyDigest().set(service.findKeyDigest(signatory).orElse(null));
+                    parameters.getTaskPath().set(sign.getPath());
+                });
+            }
+            workQueue.await();
+        } finally {
+            signatureKeys.forEach(service::removeSignatory);
+        }
+        if (service.getSignatureCache().isPresent()) {
+            sign.getLogger().lifecycle("Signing {}", service.takeStats(sign.getPath()));
+        }
+    }
+
+    static boolean isSupported(String extension) {
+        return ARMORED.equals(extension) || BINARY.equals(extension);
+    }
+
+    interface SignParameters extends WorkParameters {
+        RegularFileProperty getFile();
+
+        RegularFileProperty getSignatureFile();
+
+        Property<String> getExtension();
+
+        Property<SigningService> getSigningService();
+
+        /**
+         * @return the key of the signature, its signatory is held by the signing service
+         */
+        Property<String> getSignatureKey();
+
+        /**
+         * @return the digest of the kit key of the signatory, absent for other signatories which are never cached
+         */
+        Property<String> getKeyDigest();
+
+        Property<String> getTaskPath();
+    }
+
+    abstract static class SignWorkAction implements WorkAction<SignParameters> {
+        @Override
+        public void execute() {
+            final File file = getParameters().getFile().get().getAsFile();
+            final File signatureFile = getParameters().getSignatureFile().get().getAsFile();
+            final String extension = getParameters().getExtension().get();
+            final SigningService service = getParameters().getSigningService().get();
+            final Signatory signatory = service.getSignatory(getParameters().getSignatureKey().get());
+            final Optional<SignatureCache> cache = service.getSignatureCache();
+            if (cache.isPresent() && getParameters().getKeyDigest().isPresent()) {
+                final SignatureCache.Key key = SignatureCache.Key.of(file, getParameters().getKeyDigest().get(),
+                    signatory.getKeyId(), extension);
+                final boolean hit = cache.get().restore(key, signatureFile);
+                if (!hit) {
+                    sign(signatory, extension, file, signatureFile);
+                    cache.get().store(key, signatureFile);
+                }
+                service.getStats(getParameters().getTaskPath().get()).record(hit);
+            } else {
+                sign(signatory, extension, file, signatureFile);
+            }
+        }
+
+        private static void sign(Signatory signatory, String extension, File file, File signatureFile) {
+            final SignatureType signatureType = ARMORED.equals(extension)
+                ? new ArmoredSignatureType() : new BinarySignatureType();
+            try (InputStream toSign = new BufferedInputStream(Files.newInputStream(file.toPath()));
+                 OutputStream destination = new BufferedOutputStream(Files.newOutputStream(signatureFile.toPath()))) {
+                signatureType.sign(signatory, toSign, destination);
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to sign " + file + ".", thrown);
+            }
+        }
+    }
+
+    private static final String ARMORED = "asc";
+    private static final String BINARY = "sig";
+}
@@ -0,0 +1,135 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.gradle.kit.Checksums.Algorithm.SHA256;
+
+/**
+ * Content addressed store of signatures, an artifact with the same bytes signed by the same key reuses its signature.
+ * Signatures are stored as '&lt;key digest&gt;/&lt;key id&gt;/&lt;sha256 prefix&gt;/&lt;sha256&gt;.&lt;extension&gt;'.
+ * The key digest identifies the secret key, 32-bit key ids alone collide between keys.
+ */
+final class SignatureCache {
+
+    SignatureCache(File cacheDirectory) {
+        this.cacheDirectory = nullCheck(cacheDirectory, "Cache directory must be present.").toPath();
+    }
+
+    /**
+     * The identity of a signature, the artifact content, the signing key and the signature type.
+     * The key id of the signatory keeps apart tasks signing with a key other than the digested one.
+     */
+    static final class Key {
+        Key(String sha256, String keyDigest, String keyId, String extension) {
+            this.sha256 = nullCheck(sha256, "SHA-256 must be present.");
+            this.keyDigest = nullCheck(keyDigest, "Key digest must be present.");
+            this.keyId = nullCheck(keyId, "Key id must be present.");
+            this.extension = nullCheck(extension, "Extension must be present.");
+        }
+
+        static Key of(File file, String keyDigest, String keyId, String extension) {
+            try {
+                return new Key(Checksums.toHex(Checksums.digest(file, SHA256)[0]), keyDigest, keyId, extension);
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to hash " + file + ".", thrown);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "sha256 " + sha256 + " signed by " + keyId + " (key sha256 " + keyDigest + ")";
+        }
+
+        private Path resolve(Path directory) {
+            return directory.resolve(keyDigest).resolve(keyId).resolve(sha256.substring(0, Math.min(2, sha256.length())))
+                .resolve(sha256 + "." + extension);
+        }
+
+        private final String sha256;
+        private final String keyDigest;
+        private final String keyId;
+        private final String extension;
+    }
+
+    /**
+     * @return true if a cached signature was copied to the signature file
+     */
+    boolean restore(Key key, File signatureFile) {
+        final Path cachedFile = nullCheck(key, "Key must be present.").resolve(cacheDirectory);
+        if (!Files.isRegularFile(cachedFile)) {
+            return false;
+        }
+        try {
+            FileTransfers.copy(cachedFile, signatureFile.toPath());
+            return true;
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to restore signature " + key + ".", thrown);
+        }
+    }
+
+    /**
+     * Concurrent stores of the same key are safe, the last complete signature wins
+     */
+    void store(Key key, File signatureFile) {
+        final Path cachedFile = nullCheck(key, "Key must be present.").resolve(cacheDirectory);
+        try {
+            Files.createDirectories(cachedFile.getParent());
+            final Path tempFile = Files.createTempFile(cachedFile.getParent(), cachedFile.getFileName().toString(), ".tmp");
+            try {
+                FileTransfers.copy(signatureFile.toPath(), tempFile);
+                move(tempFile, cachedFile);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to store signature " + key + ".", thrown);
+        }
+    }
+
+    /**
+     * Cache hits and misses of one signing task
+     */
+    static final class Stats {
+        synchronized void record(boolean hit) {
+            if (hit) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+
+        synchronized int getHits() {
+            return hits;
+        }
+
+        synchronized int getMisses() {
+            return misses;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%d cache hits, %d cache misses", hits, misses);
+        }
+
+        private int hits;
+        private int misses;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private final Path cacheDirectory;
+}
@@ -1,9 +1,18 @@
 package io.github.jonloucks.gradle.kit;
 
+import org.gradle.api.Action;
+import org.gradle.api.Describable;
+import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.provider.Provider;
+import org.gradle.plugins.signing.Sign;
 import org.gradle.plugins.signing.SigningExtension;
 
+import java.io.File;
+import java.util.List;
+
 import static io.github.jonloucks.gradle.kit.Configs.*;
 import static java.util.Optional.ofNullable;
 
@@ -20,6 +29,7 @@ public final class SigningPlugin implements Plugin<Project> {
     }
     
     public void apply(Project project) {
+        new ProfileApplier(project).apply();
         new Apply(project).apply();
     }
     
@@ -34,9 +44,7 @@ public final class SigningPlugin implements Plugin<Project> {
         void apply() {
             applyOnce(() -> {
                 applySigningPlugin();
-                getProject().afterEvaluate(x -> { //
-                    configureSigning();
-                });
+                afterEvaluate(this::configureSigning);
             });
         }
         
@@ -45,17 +53,54 @@ public final class SigningPlugin implements Plugin<Project> {
             final String secretPassword = getGpgSecretKeyPassword();
             if (ofNullable(secretKey).isPresent() && ofNullable(secretPassword).isPresent()) {
                 log("Configuring signing keys...");
-                getProject().getExtensions().configure(SigningExtension.class, signing -> {
-                    signing.useInMemoryPgpKeys(secretKey, secretPassword);
+                final Provider<SigningService> service = SigningService.register(getProject(),
+                    getSignatureCacheDirectory());
+                final SigningExtension signing = getProject().getExtensions().getByType(SigningExtension.class);
+                signing.setSignatories(service.get().getSignatories(signing, secretKey, secretPassword));
+                final SignAction signAction = getProject().getObjects().newInstance(SignAction.class);
+                signAction.getSigningService().set(service);
+                getProject().getTasks().withType(Sign.class).configureEach(sign -> {
+                    sign.usesService(service);
+                    replaceGenerateAction(sign, signAction);
                 });
             }
         }
         
+        /**
+         * Only the action Gradle created for 'generate' is replaced, user and plugin actions are kept in place.
+         * Signing tasks are declared by build scripts with the Gradle task type, so the action is found by name,
+         * and a Gradle version that renames it fails the build instead of silently signing serially.
+         */
+        private void replaceGenerateAction(Sign sign, SignAction signAction) {
+            final List<Action<? super Task>> actions = sign.getActions();
+            boolean replaced = false;
+            for (int i = 0; i < actions.size(); i++) {
+                if (isGenerateAction(actions.get(i))) {
+                    actions.set(i, signAction);
+                    replaced = true;
+                }
+            }
+            if (!replaced) {
+                throw new GradleException("Unable to find the '" + GENERATE_ACTION + "' action of " + sign.getPath() + ".");
+            }
+        }
+        
+        private static boolean isGenerateAction(Action<? super Task> action) {
+            return action instanceof Describable && GENERATE_ACTION.equals(((Describable) action).getDisplayName());
+        }
+        
         private void applySigningPlugin() {
            log("Applying signing plugin...");
             getProject().getPlugins().apply("signing");
         }
         
+        private File getSignatureCacheDirectory() {
+            if (getBuildConfig(KIT_SIGNING_CACHE_ENABLED).orElse(false)) {
+                return new File(getProject().getRootDir(), ".gradle/kit/signature-cache");
+            }
+            return null;
+        }
+        
         private String getGpgSecretKey() {
             return getConfig(KIT_GPG_SECRET_KEY).orElse(null);
         }
@@ -63,5 +108,7 @@ public final class SigningPlugin implements Plugin<Project> {
         private String getGpgSecretKeyPassword() {
             return getConfig(KIT_GPG_SECRET_KEY_PASSWORD).orElse(null);
         }
+        
+        private static final String GENERATE_ACTION = "Execute generate";
     }
 }
\ No newline at end of file
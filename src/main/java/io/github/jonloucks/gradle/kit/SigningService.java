@@ -0,0 +1,167 @@
+package io.github.jonloucks.gradle.kit;
+
+import groovy.lang.Closure;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.plugins.signing.SigningExtension;
+import org.gradle.plugins.signing.signatory.Signatory;
+import org.gradle.plugins.signing.signatory.SignatoryProvider;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.gradle.kit.Checksums.Algorithm.SHA256;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Build scoped signatories for the kit GPG secret keys.
+ * The in-memory signatories of a key are created with the first signing extension using that key
+ * and shared by every project with the same key, so each key is parsed and unlocked once per build, on first use.
+ * Signing workers receive the signatory of their signature from the service.
+ * When a cache directory is set, signatures of unchanged artifacts are reused from the signature cache.
+ */
+abstract class SigningService implements BuildService<SigningService.Parameters> {
+
+    static final String SERVICE_NAME = "io.github.jonloucks.gradle.kit.signing";
+
+    interface Parameters extends BuildServiceParameters {
+        /**
+         * @return the signature cache directory, absent to always sign
+         */
+        DirectoryProperty getCacheDirectory();
+    }
+
+    /**
+     * The first registration of the build wins, the cache directory is build wide
+     */
+    static Provider<SigningService> register(Project project, File cacheDirectory) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        return validProject.getGradle().getSharedServices().registerIfAbsent(SERVICE_NAME, SigningService.class,
+            spec -> {
+                if (null != cacheDirectory) {
+                    spec.getParameters().getCacheDirectory().set(cacheDirectory);
+                }
+            });
+    }
+
+    /**
+     * @return the SHA-256 of the secret key, which identifies the key unlike its 32-bit key id
+     */
+    static String digestKey(String secretKey) {
+        final MessageDigest digest = SHA256.createDigest();
+        digest.update(nullCheck(secretKey, "Secret key must be present.").trim().getBytes(UTF_8));
+        return Checksums.toHex(digest.digest());
+    }
+
+    /**
+     * @return the in-memory signatories of the key, created with the first signing extension using the key
+     */
+    synchronized SignatoryProvider<?> getSignatories(SigningExtension signing, String secretKey, String password) {
+        final SigningExtension validSigning = nullCheck(signing, "Signing must be present.");
+        final String validSecretKey = nullCheck(secretKey, "Secret key must be present.");
+        final String validPassword = nullCheck(password, "Password must be present.");
+        return signatories.computeIfAbsent(digestKey(validSecretKey), digest -> {
+            validSigning.useInMemoryPgpKeys(validSecretKey, validPassword);
+            return new KeySignatories(digest, validSigning.getSignatories());
+        });
+    }
+
+    /**
+     * @return the digest of the kit key of a default signatory handed out by this service,
+     * empty for signatories of any other key
+     */
+    Optional<String> findKeyDigest(Signatory signatory) {
+        return Optional.ofNullable(keyDigests.get(signatory));
+    }
+
+    /**
+     * Makes the signatory of a signature available to the signing workers until it is removed
+     */
+    void putSignatory(String signatureKey, Signatory signatory) {
+        signatureSignatories.put(signatureKey, nullCheck(signatory, "Signatory must be present."));
+    }
+
+    Signatory getSignatory(String signatureKey) {
+        final Signatory signatory = signatureSignatories.get(signatureKey);
+        if (null == signatory) {
+            throw new GradleException("Unable to find signatory of " + signatureKey + ".");
+        }
+        return signatory;
+    }
+
+    void removeSignatory(String signatureKey) {
+        signatureSignatories.remove(signatureKey);
+    }
+
+    Optional<SignatureCache> getSignatureCache() {
+        if (!getParameters().getCacheDirectory().isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SignatureCache(getParameters().getCacheDirectory().get().getAsFile()));
+    }
+
+    /**
+     * @return the cache statistics of a signing task, recorded by its workers
+     */
+    SignatureCache.Stats getStats(String taskPath) {
+        return stats.computeIfAbsent(taskPath, path -> new SignatureCache.Stats());
+    }
+
+    /**
+     * @return the cache statistics of a signing task, which are reset
+     */
+    SignatureCache.Stats takeStats(String taskPath) {
+        final SignatureCache.Stats taken = stats.remove(taskPath);
+        return null == taken ? new SignatureCache.Stats() : taken;
+    }
+
+    /**
+     * Signatories of one kit key, the default signatory it hands out is remembered with the key digest.
+     * Named signatories may be configured with other keys, so they are not remembered.
+     */
+    private final class KeySignatories implements SignatoryProvider<Signatory> {
+        private KeySignatories(String keyDigest, SignatoryProvider<?> delegate) {
+            this.keyDigest = keyDigest;
+            this.delegate = delegate;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void configure(SigningExtension settings, Closure closure) {
+            delegate.configure(settings, closure);
+        }
+
+        @Override
+        public Signatory getDefaultSignatory(Project project) {
+            final Signatory signatory = delegate.getDefaultSignatory(project);
+            if (null != signatory) {
+                keyDigests.put(signatory, keyDigest);
+            }
+            return signatory;
+        }
+
+        @Override
+        public Signatory getSignatory(String name) {
+            return delegate.getSignatory(name);
+        }
+
+        private final String keyDigest;
+        private final SignatoryProvider<?> delegate;
+    }
+
+    private final Map<String, SignatureCache.Stats> stats = new ConcurrentHashMap<>();
+    private final Map<Signatory, String> keyDigests = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<String, Signatory> signatureSignatories = new ConcurrentHashMap<>();
+    private final Map<String, SignatoryProvider<?>> signatories = new HashMap<>();
+}
@@ -13,11 +13,8 @@ final class SpotBugsApplier extends ProjectApplier {
             log("Applying spotbugs plugin...");
             getProject().getPlugins().apply("com.github.spotbugs");
             
-            getProject().afterEvaluate(project -> {
-                log("After Evaluate SpotBugs Plugin...");
-                configureSpotbugsPlugin();
-                configureSpotbugsReports();
-            });
+            configureSpotbugsPlugin();
+            configureSpotbugsReports();
         });
     }
     
@@ -26,7 +23,8 @@ final class SpotBugsApplier extends ProjectApplier {
     }
     
     private void configureSpotbugsReports() {
-        getProject().getTasks().withType(SpotBugsTask.class).configureEach(configureSpotbugsReport());
+        getProject().getTasks().withType(SpotBugsTask.class)
+            .configureEach(profiled("configure SpotBugsTask", configureSpotbugsReport()));
     }
     
     private Action<SpotBugsTask> configureSpotbugsReport() {
@@ -0,0 +1,275 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Synchronizes the staging repository with the artifacts of the current publications.
+ * The publications are published in place, so the published repository keeps the artifacts of earlier runs.
+ * Only changed artifacts of the current publications are copied and all other artifacts are pruned,
+ * so stale versions from earlier runs never reach the publisher bundle.
+ * Artifacts are copied with zero-copy transfers, or hard linked where the filesystem allows it when enabled.
+ */
+abstract class StagingSyncTask extends DefaultTask {
+
+    /**
+     * @return the repository the staging publications were just published to
+     */
+    @Incremental
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getPublishedDirectory();
+
+    /**
+     * @return the 'group/artifact/version' directories of the current publications, other artifacts are stale
+     */
+    @Input
+    public abstract ListProperty<String> getPublicationPaths();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getStagingDirectory();
+
+    /**
+     * @return true to hard link artifacts into the staging directory where the filesystem allows it
+     */
+    @Input
+    public abstract Property<Boolean> getHardLinks();
+
+    @TaskAction
+    public void sync(InputChanges inputChanges) {
+        final Path stagingDirectory = getStagingDirectory().get().getAsFile().toPath();
+        final Path publishedDirectory = getPublishedDirectory().get().getAsFile().toPath();
+        final List<String> publicationPaths = getPublicationPaths().get();
+        final boolean hardLinks = getHardLinks().getOrElse(false);
+        final SyncReport report = new SyncReport();
+        try {
+            if (inputChanges.isIncremental()) {
+                syncChanges(inputChanges.getFileChanges(getPublishedDirectory()), stagingDirectory, publicationPaths,
+                    hardLinks, report);
+                for (Path source : listFiles(publishedDirectory)) {
+                    if (isPublished(publishedDirectory.relativize(source), publicationPaths)) {
+                        report.published();
+                    }
+                }
+            } else {
+                syncAll(publishedDirectory, stagingDirectory, publicationPaths, hardLinks, report);
+            }
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to sync staging repository.", thrown);
+        }
+        getLogger().lifecycle("Staging {}", report);
+    }
+
+    /**
+     * Gradle only reports content changes, so every reported artifact of a current publication is copied
+     * and every removed artifact is pruned. A change of the publications makes the sync non-incremental.
+     */
+    static void syncChanges(Iterable<FileChange> changes, Path stagingDirectory, List<String> publicationPaths,
+                            boolean hardLinks, SyncReport report) throws IOException {
+        for (FileChange change : changes) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            final Path target = stagingDirectory.resolve(change.getNormalizedPath());
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                report.pruned(delete(target));
+            } else if (isPublished(Paths.get(change.getNormalizedPath()), publicationPaths)) {
+                copy(change.getFile().toPath(), target, hardLinks, report);
+            }
+        }
+        deleteEmptyDirectories(stagingDirectory);
+    }
+
+    /**
+     * Without history the staging content is compared with the published content of the current publications
+     */
+    static void syncAll(Path publishedDirectory, Path stagingDirectory, List<String> publicationPaths,
+                        boolean hardLinks, SyncReport report) throws IOException {
+        final Set<Path> published = new HashSet<>();
+        for (Path source : listFiles(publishedDirectory)) {
+            final Path relative = publishedDirectory.relativize(source);
+            if (!isPublished(relative, publicationPaths)) {
+                continue;
+            }
+            final Path target = stagingDirectory.resolve(relative.toString());
+            published.add(relative);
+            report.published();
+            if (!isSameContent(source, target)) {
+                copy(source, target, hardLinks, report);
+            }
+        }
+        for (Path target : listFiles(stagingDirectory)) {
+            if (!published.contains(stagingDirectory.relativize(target))) {
+                report.pruned(delete(target));
+            }
+        }
+        deleteEmptyDirectories(stagingDirectory);
+    }
+
+    /**
+     * @return true for the artifacts in the version directory of a current publication
+     * and the metadata in its artifact directory
+     */
+    static boolean isPublished(Path relative, List<String> publicationPaths) {
+        final String path = relative.toString().replace(File.separatorChar, '/');
+        for (String publicationPath : publicationPaths) {
+            final String artifactPath = publicationPath.substring(0, Math.max(0, publicationPath.lastIndexOf('/')));
+            if (path.startsWith(publicationPath + "/")
+                || (path.startsWith(artifactPath + "/") && path.indexOf('/', artifactPath.length() + 1) < 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isSameContent(Path source, Path target) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(source) != Files.size(target)) {
+            return false;
+        }
+        if (Files.isSameFile(source, target)) {
+            return true;
+        }
+        try (InputStream sourceStream = Files.newInputStream(source);
+             InputStream targetStream = Files.newInputStream(target)) {
+            final byte[] sourceBuffer = new byte[BUFFER_SIZE];
+            final byte[] targetBuffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = sourceStream.readNBytes(sourceBuffer, 0, BUFFER_SIZE)) > 0) {
+                if (targetStream.readNBytes(targetBuffer, 0, count) != count) {
+                    return false;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (sourceBuffer[i] != targetBuffer[i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void copy(Path source, Path target, boolean hardLinks, SyncReport report) throws IOException {
+        if (hardLinks) {
+            report.copied(Files.size(source), FileTransfers.linkOrCopy(source, target));
+        } else {
+            FileTransfers.copy(source, target);
+            report.copied(Files.size(source), false);
+        }
+    }
+
+    private static long delete(Path target) throws IOException {
+        if (!Files.isRegularFile(target)) {
+            return 0;
+        }
+        final long size = Files.size(target);
+        Files.delete(target);
+        return size;
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteEmptyDirectories(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final List<Path> directories;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            directories = paths.filter(Files::isDirectory).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path candidate : directories) {
+            if (!candidate.equals(directory)) {
+                try (Stream<Path> children = Files.list(candidate)) {
+                    if (!children.findAny().isPresent()) {
+                        Files.delete(candidate);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts of a sync, only the bytes written to and pruned from the staging directory are reported.
+     * Publishing to the staging publish repository rewrites the artifacts of every publication regardless of the sync.
+     */
+    static final class SyncReport {
+        void copied(long bytes, boolean linked) {
+            copiedFiles++;
+            copiedBytes += bytes;
+            if (linked) {
+                linkedFiles++;
+                linkedBytes += bytes;
+            }
+        }
+
+        void pruned(long bytes) {
+            prunedFiles++;
+            prunedBytes += bytes;
+        }
+
+        void published() {
+            publishedFiles++;
+        }
+
+        long getWrittenBytes() {
+            return copiedBytes - linkedBytes;
+        }
+
+        long getPrunedBytes() {
+            return prunedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("copied %d of %d files (%d bytes written, %d files hard linked), " +
+                    "pruned %d stale files (%d bytes)",
+                copiedFiles, publishedFiles, getWrittenBytes(), linkedFiles, prunedFiles, prunedBytes);
+        }
+
+        private int copiedFiles;
+        private long copiedBytes;
+        private int linkedFiles;
+        private long linkedBytes;
+        private int prunedFiles;
+        private long prunedBytes;
+        private int publishedFiles;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+}
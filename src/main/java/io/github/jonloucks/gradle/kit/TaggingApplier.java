@@ -20,23 +20,21 @@ final class TaggingApplier extends ProjectApplier {
     @Override
     void apply() {
         applyOnce(() -> { //
-            getProject().afterEvaluate(x -> {
-                log("Applying Test Tagging Rules ...");
-                
-                configureStandardTestTasks();
-                
-                registerTaggedTestTask("integration", KIT_INTEGRATION_EXCLUDE_TAGS);
-                registerTaggedTestTask("functional", KIT_FUNCTIONAL_EXCLUDE_TAGS);
-            });
+            log("Applying Test Tagging Rules ...");
+            
+            configureStandardTestTasks();
+            
+            registerTaggedTestTask("integration", KIT_INTEGRATION_EXCLUDE_TAGS);
+            registerTaggedTestTask("functional", KIT_FUNCTIONAL_EXCLUDE_TAGS);
         });
     }
     
     private void registerTaggedTestTask(String includeTag, Variant<String[]> excludeVariant) {
         final String taskName = includeTag + "Test";
-        log("Creating " + taskName + "...");
+        log(() -> "Creating " + taskName + "...");
         
         final TaskProvider<Test> taggedTaskProvider = getProject().getTasks().register(taskName, TEST_TYPE, task -> {
-            log("Configuring " + taskName + ".");
+            log(() -> "Configuring " + taskName + ".");
             task.setDescription("Runs tests with tag: " + includeTag);
             task.setGroup("verification");
             
@@ -51,19 +49,17 @@ final class TaggingApplier extends ProjectApplier {
             });
             
             task.shouldRunAfter("test");
-            log("Configured " + taskName + ".");
+            log(() -> "Configured " + taskName + ".");
         });
         
         getProject().getTasks().named("check").configure(task -> task.dependsOn(taggedTaskProvider));
     }
     
     private Optional<SourceSet> findTestSourceSet() {
-        return getProject()
+        return Optional.ofNullable(getProject() //
             .getExtensions() //
             .getByType(SourceSetContainer.class) //
-            .stream() //
-            .filter(ss -> ss.getName().equals("test")) //
-            .findFirst();
+            .findByName("test"));
     }
     
     private void configureStandardTestTasks() {
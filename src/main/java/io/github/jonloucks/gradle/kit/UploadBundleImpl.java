@@ -7,6 +7,11 @@ import org.gradle.api.GradleException;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
 import static io.github.jonloucks.gradle.kit.Configs.*;
@@ -14,24 +19,27 @@ import static io.github.jonloucks.gradle.kit.Internal.base64Encode;
 
 final class UploadBundleImpl {
     
-    UploadBundleImpl(Environment environment, String bundleName, File bundleFile) {
+    UploadBundleImpl(Environment environment, String bundleName, File bundleFile, OkHttpClient client,
+                     int maxAttempts, long initialBackoffMillis) {
         this.environment = nullCheck(environment, "Environment must be present.");
         this.bundleName = nullCheck(bundleName, "Bundle name must be present.");
         this.bundleFile = nullCheck(bundleFile, "Bundle file must be present.");
+        this.client = nullCheck(client, "Client must be present.");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
     }
     
-    void upload() {
+    UploadMetrics upload() {
         checkBundleFile();
         final String url = getPublisherUrl();
         final String username = getAuthorUsername();
         final String password = getAuthorPassword();
         final String encodedAuthString = base64Encode(username + ":" + password);
-        final OkHttpClient client = new OkHttpClient();
         
         final RequestBody requestBody = new MultipartBody.Builder()
             .setType(MultipartBody.FORM)
             .addFormDataPart("bundle", bundleName,
-                RequestBody.create(bundleFile, MediaType.parse("application/x-tar")))
+                RequestBody.create(bundleFile, MediaType.parse(getMediaType())))
             .build();
         
         final Request request = new Request.Builder()
@@ -42,18 +50,130 @@ final class UploadBundleImpl {
             .build();
         
         if ("dry-run".equals(username)) {
-            return;
+            return new UploadMetrics(0, bundleFile.length(), 0);
         }
         
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new GradleException("Failure response: " + response + ".");
+        long backoffMillis = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            final long startNanos = System.nanoTime();
+            long delayMillis = backoffMillis;
+            try (Response response = client.newCall(request).execute()) {
+                if (response.isSuccessful()) {
+                    return new UploadMetrics(attempt, bundleFile.length(), System.nanoTime() - startNanos);
+                }
+                if (attempt >= maxAttempts || !isRetryable(response.code())) {
+                    throw new GradleException("Failure response: " + response + ".");
+                }
+                delayMillis = getRetryAfterMillis(response.header("Retry-After"), backoffMillis);
+                if (delayMillis > MAX_RETRY_AFTER_MILLIS) {
+                    throw new GradleException("Failure response: " + response + ", retry after "
+                        + delayMillis / 1000 + " seconds.");
+                }
+            } catch (ConnectException thrown) {
+                // the request never reached the publisher, so it is safe to send again
+                if (attempt >= maxAttempts) {
+                    throw new GradleException("Unable connect to " + url + "." , thrown);
+                }
+            } catch (IOException thrown) {
+                throw new GradleException("Unable connect to " + url + "." , thrown);
             }
-        } catch (IOException thrown) {
-            throw new GradleException("Unable connect to " + url + "." , thrown);
+            sleep(delayMillis);
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
         }
     }
     
+    /**
+     * Upload measurements of a successful upload
+     */
+    static final class UploadMetrics {
+        UploadMetrics(int attempts, long bytes, long latencyNanos) {
+            this.attempts = attempts;
+            this.bytes = bytes;
+            this.latencyNanos = latencyNanos;
+        }
+        
+        /**
+         * @return the number of requests sent, 0 for a dry run
+         */
+        int getAttempts() {
+            return attempts;
+        }
+        
+        long getBytes() {
+            return bytes;
+        }
+        
+        /**
+         * @return the latency of the successful request, including the transfer of the bundle
+         */
+        long getLatencyNanos() {
+            return latencyNanos;
+        }
+        
+        double getBytesPerSecond() {
+            return latencyNanos > 0 ? bytes * 1e9 / latencyNanos : 0;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d bytes in %.1f ms (%.1f KiB/s) after %d attempt(s)",
+                bytes, latencyNanos / 1e6, getBytesPerSecond() / 1024, attempts);
+        }
+        
+        private final int attempts;
+        private final long bytes;
+        private final long latencyNanos;
+    }
+    
+    /**
+     * Only responses where the publisher refused the bundle without processing it are retried.
+     * The upload is a non-idempotent POST, a gateway error or timeout can follow an accepted bundle
+     * and retrying it could create a second deployment.
+     */
+    static boolean isRetryable(int code) {
+        switch (code) {
+            case 429: // too many requests
+            case 503: // service unavailable
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * @return the delay requested by a Retry-After header in seconds or as an HTTP date, otherwise the backoff
+     */
+    static long getRetryAfterMillis(String retryAfter, long backoffMillis) {
+        if (null == retryAfter || retryAfter.trim().isEmpty()) {
+            return backoffMillis;
+        }
+        final String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException ignored) {
+            // not delay seconds, try an HTTP date
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException ignored) {
+            return backoffMillis;
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Upload interrupted.", thrown);
+        }
+    }
+    
+    private String getMediaType() {
+        return BundleFormat.ofFileName(bundleFile.getName()).getMediaType();
+    }
+    
     private void checkBundleFile() {
         if (!bundleFile.exists()) {
             throw new GradleException("Bundle file not found at: " + bundleFile.getAbsolutePath() + ".");
@@ -75,8 +195,16 @@ final class UploadBundleImpl {
     private String requireNonEmpty(Variant<String> variant, String message) {
         return environment.findVariance(variant).orElseThrow(() -> new GradleException(message));
     }
-
+    
+    static final int MAX_ATTEMPTS = 4;
+    static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final long MAX_RETRY_AFTER_MILLIS = 300_000;
+    
     private final Environment environment;
     private final String bundleName;
     private final File bundleFile;
+    private final OkHttpClient client;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
 }
@@ -0,0 +1,164 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.UploadBundlesImpl.Outcome;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Variant;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.ServiceReference;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+
+import java.io.File;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.jonloucks.gradle.kit.Configs.KIT_OSSRH_PASSWORD;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_OSSRH_URL;
+import static io.github.jonloucks.gradle.kit.Configs.KIT_OSSRH_USERNAME;
+import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
+
+/**
+ * Uploads the publisher bundles concurrently, skipping bundles the ledger shows the publisher already accepted.
+ * All state except the credentials is resolved during configuration so the task can be restored from the
+ * configuration cache, the credentials stay providers that are read when the upload runs.
+ */
+abstract class UploadBundleTask extends DefaultTask {
+
+    /**
+     * @return the bundle, or the size bounded bundles of a split upload
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NAME_ONLY)
+    public abstract ConfigurableFileCollection getBundleFiles();
+
+    /**
+     * @return the bundle name without the upload timestamp
+     */
+    @Internal
+    public abstract Property<String> getBundleName();
+
+    /**
+     * @return the resolved publishing variances, keyed by variant key
+     */
+    @Internal
+    public abstract MapProperty<String, String> getSettings();
+
+    /**
+     * @return the OSSRH username, read when the upload runs
+     */
+    @Internal
+    public abstract Property<String> getUsername();
+
+    /**
+     * @return the OSSRH password, read when the upload runs
+     */
+    @Internal
+    public abstract Property<String> getPassword();
+
+    /**
+     * @return the coordinates of the bundle, part of the upload ledger key
+     */
+    @Internal
+    public abstract Property<String> getCoordinates();
+
+    /**
+     * @return the ledger of accepted uploads, uploads of accepted content are skipped
+     */
+    @Internal
+    public abstract RegularFileProperty getLedgerFile();
+
+    /**
+     * @return true to upload even when the ledger shows the content was accepted, set by --force
+     */
+    @Internal
+    @Option(option = "force", description = "Uploads the bundles even when the publisher already accepted them.")
+    public abstract Property<Boolean> getForce();
+
+    /**
+     * @return the maximum number of concurrent uploads
+     */
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    @ServiceReference(UploadService.SERVICE_NAME)
+    public abstract Property<UploadService> getUploadService();
+
+    @TaskAction
+    public void upload() {
+        final Map<String, String> settings = new HashMap<>(getSettings().get());
+        putCredential(settings, KIT_OSSRH_USERNAME, getUsername());
+        putCredential(settings, KIT_OSSRH_PASSWORD, getPassword());
+        final Environment environment = createEnvironment(b -> b.addMapSource(settings));
+        final UploadLedger ledger = new UploadLedger(getLedgerFile().get().getAsFile());
+        final Optional<String> url = environment.findVariance(KIT_OSSRH_URL);
+        final Map<File, UploadLedger.Key> keys = new HashMap<>();
+        final List<File> bundleFiles = new ArrayList<>();
+
+        for (File bundleFile : getSortedBundleFiles()) {
+            if (!url.isPresent()) {
+                bundleFiles.add(bundleFile);
+                continue;
+            }
+            final UploadLedger.Key key = UploadLedger.Key.of(bundleFile, url.get(), getCoordinates().get());
+            final Optional<String> accepted = getForce().getOrElse(false) ? Optional.empty() : ledger.findAccepted(key);
+            if (accepted.isPresent()) {
+                getLogger().lifecycle("Skipped upload of {} {}, already accepted at {}. Use --force to upload again.",
+                    bundleFile.getName(), key, accepted.get());
+            } else {
+                keys.put(bundleFile, key);
+                bundleFiles.add(bundleFile);
+            }
+        }
+        if (bundleFiles.isEmpty()) {
+            setDidWork(false);
+            return;
+        }
+
+        final String bundleName = getBundleName().get() + " @ " + createTimestamp();
+        final List<Outcome> outcomes = new UploadBundlesImpl(environment, bundleName, bundleFiles,
+            getUploadService().get().getClient(), getParallelism().getOrElse(1), UploadBundleImpl.INITIAL_BACKOFF_MILLIS)
+            .upload();
+        for (Outcome outcome : outcomes) {
+            final File bundleFile = outcome.getBundleFile();
+            if (!outcome.isSuccess()) {
+                getLogger().error("Failed upload of {}: {}", bundleFile.getName(), outcome.getFailure().getMessage());
+                continue;
+            }
+            getLogger().lifecycle("Uploaded {} as {}: {}", bundleFile.getName(), bundleName, outcome.getMetrics());
+            if (keys.containsKey(bundleFile) && outcome.getMetrics().getAttempts() > 0) {
+                ledger.recordAccepted(keys.get(bundleFile));
+            }
+        }
+        UploadBundlesImpl.checkOutcomes(outcomes);
+    }
+
+    private static void putCredential(Map<String, String> settings, Variant<String> variant, Property<String> value) {
+        if (value.isPresent()) {
+            settings.put(variant.getKeys().get(0), value.get());
+        }
+    }
+
+    private List<File> getSortedBundleFiles() {
+        final List<File> bundleFiles = new ArrayList<>(getBundleFiles().getFiles());
+        bundleFiles.sort(Comparator.comparing(File::getName));
+        return bundleFiles;
+    }
+
+    private static String createTimestamp() {
+        return ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss XXX"));
+    }
+}
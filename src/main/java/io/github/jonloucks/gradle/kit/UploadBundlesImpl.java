@@ -0,0 +1,134 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.UploadBundleImpl.UploadMetrics;
+import io.github.jonloucks.variants.api.Environment;
+import okhttp3.OkHttpClient;
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Uploads several bundles concurrently over a bounded pool sharing one client.
+ * Every bundle is attempted, so a failure of one bundle does not hide the outcome of the others.
+ */
+final class UploadBundlesImpl {
+
+    UploadBundlesImpl(Environment environment, String bundleName, List<File> bundleFiles, OkHttpClient client,
+                      int parallelism, long initialBackoffMillis) {
+        this.environment = nullCheck(environment, "Environment must be present.");
+        this.bundleName = nullCheck(bundleName, "Bundle name must be present.");
+        this.bundleFiles = new ArrayList<>(nullCheck(bundleFiles, "Bundle files must be present."));
+        this.client = nullCheck(client, "Client must be present.");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    /**
+     * @return the outcome of each bundle, in the order of the bundle files
+     */
+    List<Outcome> upload() {
+        final List<Outcome> outcomes = new ArrayList<>();
+        if (bundleFiles.isEmpty()) {
+            return outcomes;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, bundleFiles.size()));
+        try {
+            final List<Future<UploadMetrics>> futures = new ArrayList<>();
+            for (int i = 0; i < bundleFiles.size(); i++) {
+                final UploadBundleImpl upload = new UploadBundleImpl(environment, getPartName(i), bundleFiles.get(i),
+                    client, UploadBundleImpl.MAX_ATTEMPTS, initialBackoffMillis);
+                futures.add(executor.submit(upload::upload));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                outcomes.add(await(bundleFiles.get(i), futures.get(i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    /**
+     * Fails with all failed bundles when any bundle failed
+     */
+    static void checkOutcomes(List<Outcome> outcomes) {
+        final List<Outcome> failures = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (!outcome.isSuccess()) {
+                failures.add(outcome);
+            }
+        }
+        if (!failures.isEmpty()) {
+            final GradleException thrown = new GradleException("Unable to upload " + failures.size() + " of " +
+                outcomes.size() + " bundles.", failures.get(0).getFailure());
+            for (int i = 1; i < failures.size(); i++) {
+                thrown.addSuppressed(failures.get(i).getFailure());
+            }
+            throw thrown;
+        }
+    }
+
+    /**
+     * The result of uploading one bundle, either metrics or a failure
+     */
+    static final class Outcome {
+        private Outcome(File bundleFile, UploadMetrics metrics, Throwable failure) {
+            this.bundleFile = bundleFile;
+            this.metrics = metrics;
+            this.failure = failure;
+        }
+
+        File getBundleFile() {
+            return bundleFile;
+        }
+
+        boolean isSuccess() {
+            return null == failure;
+        }
+
+        UploadMetrics getMetrics() {
+            return metrics;
+        }
+
+        Throwable getFailure() {
+            return failure;
+        }
+
+        private final File bundleFile;
+        private final UploadMetrics metrics;
+        private final Throwable failure;
+    }
+
+    private String getPartName(int index) {
+        return bundleFiles.size() == 1 ? bundleName : bundleName + " (" + (index + 1) + " of " + bundleFiles.size() + ")";
+    }
+
+    private static Outcome await(File bundleFile, Future<UploadMetrics> future) {
+        try {
+            return new Outcome(bundleFile, future.get(), null);
+        } catch (ExecutionException thrown) {
+            return new Outcome(bundleFile, null, thrown.getCause());
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Upload interrupted.", thrown);
+        }
+    }
+
+    private final Environment environment;
+    private final String bundleName;
+    private final List<File> bundleFiles;
+    private final OkHttpClient client;
+    private final int parallelism;
+    private final long initialBackoffMillis;
+}
@@ -0,0 +1,104 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.gradle.kit.Checksums.Algorithm.SHA256;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local record of the bundles accepted by a publisher.
+ * Each line holds the bundle SHA-256, target url, coordinates and time of acceptance, separated by tabs.
+ */
+final class UploadLedger {
+
+    UploadLedger(File ledgerFile) {
+        this.ledgerFile = nullCheck(ledgerFile, "Ledger file must be present.");
+    }
+
+    /**
+     * The identity of an upload, the same key means the publisher already has the content
+     */
+    static final class Key {
+        Key(String sha256, String url, String coordinates) {
+            this.sha256 = nullCheck(sha256, "SHA-256 must be present.");
+            this.url = nullCheck(url, "Url must be present.");
+            this.coordinates = nullCheck(coordinates, "Coordinates must be present.");
+        }
+
+        static Key of(File bundleFile, String url, String coordinates) {
+            try {
+                return new Key(Checksums.toHex(Checksums.digest(bundleFile, SHA256)[0]), url, coordinates);
+            } catch (IOException thrown) {
+                throw new GradleException("Unable to hash bundle " + bundleFile + ".", thrown);
+            }
+        }
+
+        String getSha256() {
+            return sha256;
+        }
+
+        @Override
+        public String toString() {
+            return coordinates + " (sha256 " + sha256 + ") at " + url;
+        }
+
+        private boolean matches(String[] fields) {
+            return fields.length >= 3 && sha256.equals(fields[0]) && url.equals(fields[1]) && coordinates.equals(fields[2]);
+        }
+
+        private final String sha256;
+        private final String url;
+        private final String coordinates;
+    }
+
+    /**
+     * @return the time the content of the key was accepted, empty if it was never accepted
+     */
+    Optional<String> findAccepted(Key key) {
+        nullCheck(key, "Key must be present.");
+        for (String line : readLines()) {
+            final String[] fields = line.split(SEPARATOR);
+            if (key.matches(fields)) {
+                return Optional.of(fields.length > 3 ? fields[3] : "unknown");
+            }
+        }
+        return Optional.empty();
+    }
+
+    void recordAccepted(Key key) {
+        nullCheck(key, "Key must be present.");
+        final String line = String.join(SEPARATOR, key.sha256, key.url, key.coordinates, Instant.now().toString());
+        try {
+            Files.createDirectories(ledgerFile.getAbsoluteFile().getParentFile().toPath());
+            Files.write(ledgerFile.toPath(), Collections.singletonList(line), UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to write upload ledger " + ledgerFile + ".", thrown);
+        }
+    }
+
+    private List<String> readLines() {
+        if (!ledgerFile.exists()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Files.readAllLines(ledgerFile.toPath(), UTF_8);
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to read upload ledger " + ledgerFile + ".", thrown);
+        }
+    }
+
+    private static final String SEPARATOR = "\t";
+
+    private final File ledgerFile;
+}
@@ -0,0 +1,66 @@
+package io.github.jonloucks.gradle.kit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Build scoped HTTP client for uploads.
+ * Connections are pooled across all uploads of the build and released when the build finishes.
+ */
+abstract class UploadService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+
+    static final String SERVICE_NAME = "io.github.jonloucks.gradle.kit.upload";
+
+    static Provider<UploadService> register(Project project) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        return validProject.getGradle().getSharedServices().registerIfAbsent(SERVICE_NAME, UploadService.class);
+    }
+
+    static OkHttpClient createClient() {
+        return new OkHttpClient.Builder() //
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)) //
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, 5, TimeUnit.MINUTES)) //
+            .connectTimeout(30, TimeUnit.SECONDS) //
+            .writeTimeout(5, TimeUnit.MINUTES) // bundles can be large
+            .readTimeout(5, TimeUnit.MINUTES) // the publisher validates the bundle before responding
+            .retryOnConnectionFailure(false) // UploadBundleImpl retries only requests that never connected
+            .build();
+    }
+
+    synchronized OkHttpClient getClient() {
+        if (null == client) {
+            client = createClient();
+        }
+        return client;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null != client) {
+            shutdown(client);
+            client = null;
+        }
+    }
+
+    /**
+     * Releases the threads and pooled connections of a client
+     */
+    private static void shutdown(OkHttpClient client) {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+
+    private OkHttpClient client;
+}
@@ -0,0 +1,103 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.GlobalVariants;
+import io.github.jonloucks.variants.api.Variant;
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Build scoped resolver of variants.
+ * System environment and system properties are looked up at most once per key for the whole build.
+ * Each project has one environment, its project properties are read on every lookup,
+ * since build scripts and per-project 'gradle.properties' may set them at any time.
+ */
+abstract class VariantsService implements BuildService<BuildServiceParameters.None> {
+
+    static Provider<VariantsService> register(Project project) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        return validProject.getGradle().getSharedServices().registerIfAbsent(SERVICE_NAME, VariantsService.class);
+    }
+
+    /**
+     * @return the environment of the project, backed by the build wide system environment and properties
+     */
+    Environment getEnvironment(Project project) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        return projectEnvironments.computeIfAbsent(validProject.getPath(), path -> GlobalVariants.createEnvironment(b -> b //
+            .addSource(this::systemEnvironmentVariable) //
+            .addSource(this::systemProperty) //
+            .addSource(key -> projectProperty(validProject, key)) //
+        ));
+    }
+
+    /**
+     * Resolves a build wide variance once for the whole build.
+     * Only the system environment, system properties and the Gradle properties of the build are consulted,
+     * never the properties of a project, so the value does not depend on which project asks first.
+     * Only the variants in {@link #BUILD_VARIANTS} are build wide.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Optional<T> findBuildVariance(Project project, Variant<T> variant) {
+        final Project validProject = nullCheck(project, "Project must be present.");
+        if (!BUILD_VARIANTS.contains(nullCheck(variant, "Variant must be present."))) {
+            throw new IllegalArgumentException("Variant must be build wide.");
+        }
+        final Optional<?> cached = buildVariances.get(variant);
+        if (null != cached) {
+            return (Optional<T>) cached;
+        }
+        final Optional<T> resolved = GlobalVariants.createEnvironment(b -> b //
+            .addSource(this::systemEnvironmentVariable) //
+            .addSource(this::systemProperty) //
+            .addSource(key -> gradleProperty(validProject, key)) //
+        ).findVariance(variant);
+        final Optional<?> existing = buildVariances.putIfAbsent(variant, resolved);
+        return null == existing ? resolved : (Optional<T>) existing;
+    }
+
+    private Optional<CharSequence> systemEnvironmentVariable(String key) {
+        return environmentVariables.computeIfAbsent(key, k -> Optional.ofNullable(System.getenv(k)));
+    }
+
+    private Optional<CharSequence> systemProperty(String key) {
+        return systemProperties.computeIfAbsent(key, k -> Optional.ofNullable(System.getProperty(k)));
+    }
+
+    private static Optional<CharSequence> projectProperty(Project project, String key) {
+        return Optional.ofNullable(project.findProperty(key)).map(Object::toString);
+    }
+
+    private static Optional<CharSequence> gradleProperty(Project project, String key) {
+        return Optional.ofNullable(project.getProviders().gradleProperty(key).getOrNull());
+    }
+
+    /**
+     * Variants that configure the whole build rather than one project: logging, profiling,
+     * whether coverage is verified per module or aggregated, and the root signature cache
+     */
+    static final Set<Variant<?>> BUILD_VARIANTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        Configs.KIT_LOG_ENABLED,
+        Configs.KIT_PROFILE_ENABLED,
+        Configs.KIT_COVERAGE_PER_MODULE,
+        Configs.KIT_SIGNING_CACHE_ENABLED)));
+
+    private static final String SERVICE_NAME = "io.github.jonloucks.gradle.kit.variants";
+
+    private final Map<String, Optional<CharSequence>> environmentVariables = new ConcurrentHashMap<>();
+    private final Map<String, Optional<CharSequence>> systemProperties = new ConcurrentHashMap<>();
+    private final Map<Variant<?>, Optional<?>> buildVariances = new ConcurrentHashMap<>();
+    private final Map<String, Environment> projectEnvironments = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,71 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Summary of the per-module coverage verifications.
+ * Each module verifies its own coverage and leaves a one line record, the summary only reads the records.
+ */
+@UntrackedTask(because = "The summary is only logged.")
+abstract class VerificationSummaryTask extends DefaultTask {
+
+    /**
+     * @return the records of the modules whose coverage was verified
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getVerifiedModules();
+
+    @TaskAction
+    public void summarize() {
+        final List<String> records = new ArrayList<>();
+        for (File record : getVerifiedModules().getFiles()) {
+            if (record.isFile()) {
+                records.add(readRecord(record));
+            }
+        }
+        Collections.sort(records);
+        getLogger().lifecycle("Coverage verified for {} modules", records.size());
+        for (String record : records) {
+            getLogger().lifecycle("  {}", record);
+        }
+    }
+
+    /**
+     * Written by a module once its verification passed
+     */
+    static void writeRecord(File record, String projectPath, List<String> counters, BigDecimal minimum) {
+        try {
+            Files.createDirectories(record.getAbsoluteFile().getParentFile().toPath());
+            Files.write(record.toPath(), (projectPath + " " + String.join(",", counters) + " covered ratio >= "
+                + minimum.toPlainString()).getBytes(UTF_8));
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to write coverage verification of " + projectPath + ".", thrown);
+        }
+    }
+
+    private static String readRecord(File record) {
+        try {
+            return new String(Files.readAllBytes(record.toPath()), UTF_8).trim();
+        } catch (IOException thrown) {
+            throw new GradleException("Unable to read coverage verification " + record + ".", thrown);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.file.FileCollection;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static io.github.jonloucks.contracts.test.Tools.assertInstantiateThrows;
+import static io.github.jonloucks.gradle.kit.Aggregations.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AggregationsTests {
+    
+    @Test
+    public void aggregations_Instantiate_Throws() {
+        assertInstantiateThrows(Aggregations.class);
+    }
+    
+    @Test
+    public void aggregations_getElementsName_Works() {
+        assertEquals("kitCoverageDataElements", getElementsName(COVERAGE_DATA));
+        assertEquals("kitStagingRepositoryElements", getElementsName(STAGING_REPOSITORY));
+    }
+    
+    @Test
+    public void aggregations_getAggregationName_Works() {
+        assertEquals("kitCoverageClassesAggregation", getAggregationName(COVERAGE_CLASSES));
+        assertEquals("kitCoverageSourcesAggregation", getAggregationName(COVERAGE_SOURCES));
+    }
+    
+    @Test
+    public void aggregations_aggregate_ResolvesSubprojectElements(@TempDir Path tempDir) throws IOException {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        ProjectBuilder.builder().withParent(rootProject).withName("sub-docs").build();
+        final File checksums = Files.createDirectories(tempDir.resolve("checksums")).toFile();
+        registerElements(project, STAGING_CHECKSUMS, outgoing -> outgoing.artifact(checksums,
+            artifact -> artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE)));
+        
+        final FileCollection files = aggregate(rootProject, STAGING_CHECKSUMS, name -> true);
+        
+        assertEquals(Collections.singleton(checksums), files.getFiles());
+    }
+    
+    @Test
+    public void aggregations_aggregate_IncludesElementsRegisteredLater(@TempDir Path tempDir) throws IOException {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        final Project excluded = ProjectBuilder.builder().withParent(rootProject).withName("excluded").build();
+        final File checksums = Files.createDirectories(tempDir.resolve("checksums")).toFile();
+        final File other = Files.createDirectories(tempDir.resolve("other")).toFile();
+        
+        final FileCollection files = aggregate(rootProject, STAGING_CHECKSUMS, name -> name.startsWith("sub-"));
+        registerElements(project, STAGING_CHECKSUMS, outgoing -> outgoing.artifact(checksums,
+            artifact -> artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE)));
+        registerElements(excluded, STAGING_CHECKSUMS, outgoing -> outgoing.artifact(other,
+            artifact -> artifact.setType(ArtifactTypeDefinition.DIRECTORY_TYPE)));
+        
+        assertEquals(Collections.singleton(checksums), files.getFiles());
+    }
+}
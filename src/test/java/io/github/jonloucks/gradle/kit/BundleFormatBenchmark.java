@@ -0,0 +1,107 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import io.github.jonloucks.variants.api.Environment;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bundle size and create plus upload time of each bundle format
+ * on a synthetic staging tree, 200 modules by default.
+ * The module count can be changed with the 'kit.benchmark.modules' system property, the first value is used.
+ */
+@Tag("benchmark")
+public final class BundleFormatBenchmark {
+
+    @Test
+    public void benchmark_BundleFormats(@TempDir Path tempDir) throws Exception {
+        final int moduleCount = Integer.parseInt(System.getProperty("kit.benchmark.modules", "200").split(",")[0].trim());
+        final List<Entry> entries = createStagingTree(tempDir.resolve("staging-deploy"), moduleCount);
+        final OkHttpClient client = UploadService.createClient();
+
+        try (MockWebServer server = new MockWebServer()) {
+            server.start();
+            for (BundleFormat format : BundleFormat.values()) {
+                final File bundleFile = tempDir.resolve("bundle." + format.getExtension()).toFile();
+                measure(format, entries, bundleFile, server, client); // warm up before measuring
+                measure(format, entries, bundleFile, server, client);
+                assertTrue(bundleFile.length() > 0, "Bundle must be written.");
+            }
+        }
+    }
+
+    private static void measure(BundleFormat format, List<Entry> entries, File bundleFile,
+                                MockWebServer server, OkHttpClient client) {
+        final long createStart = System.nanoTime();
+        BundleWriter.write(format, entries, bundleFile);
+        final long createNanos = System.nanoTime() - createStart;
+
+        server.enqueue(new MockResponse().setResponseCode(201));
+        final long uploadStart = System.nanoTime();
+        new UploadBundleImpl(createUploadEnvironment(server), "bundle", bundleFile, client, 1, 0).upload();
+        final long uploadNanos = System.nanoTime() - uploadStart;
+
+        System.out.printf("Bundle %-6s %,14d bytes, create %8.1f ms, upload %8.1f ms, total %8.1f ms%n",
+            format.getExtension(), bundleFile.length(), createNanos / 1e6, uploadNanos / 1e6,
+            (createNanos + uploadNanos) / 1e6);
+    }
+
+    private static Environment createUploadEnvironment(MockWebServer server) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("kit.ossrh.url", server.url("/api/v1/publisher/upload").toString());
+        map.put("kit.ossrh.username", "user");
+        map.put("kit.ossrh.password", "password");
+        return createEnvironment(b -> b.addMapSource(map));
+    }
+
+    /**
+     * Jars are filled with repetitive class-like content so they compress like real artifacts
+     */
+    private static List<Entry> createStagingTree(Path stagingDir, int moduleCount) throws Exception {
+        final List<Entry> entries = new ArrayList<>();
+        final Random random = new Random(42);
+        for (int module = 0; module < moduleCount; module++) {
+            final String name = String.format("module-%04d", module);
+            final String directory = "io/github/example/" + name + "/1.0.0/";
+            addFile(entries, stagingDir, directory + name + "-1.0.0.pom",
+                ("<project><artifactId>" + name + "</artifactId></project>").getBytes(UTF_8));
+            addFile(entries, stagingDir, directory + name + "-1.0.0.jar", createContent(random, 256 * 1024));
+            addFile(entries, stagingDir, directory + name + "-1.0.0-sources.jar", createContent(random, 128 * 1024));
+            addFile(entries, stagingDir, directory + name + "-1.0.0-javadoc.jar", createContent(random, 512 * 1024));
+        }
+        return entries;
+    }
+
+    private static byte[] createContent(Random random, int size) {
+        final byte[] content = new byte[size];
+        final byte[] words = "public final class Method Code LineNumberTable java/lang/Object ".getBytes(UTF_8);
+        for (int i = 0; i < size; i++) {
+            content[i] = random.nextInt(4) == 0 ? (byte) random.nextInt(256) : words[i % words.length];
+        }
+        return content;
+    }
+
+    private static void addFile(List<Entry> entries, Path stagingDir, String path, byte[] content) throws Exception {
+        final Path file = stagingDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        entries.add(new Entry(path, file.toFile()));
+    }
+}
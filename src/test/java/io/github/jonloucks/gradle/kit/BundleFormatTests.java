@@ -0,0 +1,40 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class BundleFormatTests {
+
+    @Test
+    public void bundleFormat_of_Works() {
+        assertEquals(BundleFormat.TAR, BundleFormat.of("tar"));
+        assertEquals(BundleFormat.TAR_GZ, BundleFormat.of(" TAR.GZ "));
+        assertEquals(BundleFormat.TAR_GZ, BundleFormat.of("tgz"));
+        assertEquals(BundleFormat.ZIP, BundleFormat.of("zip"));
+    }
+
+    @Test
+    public void bundleFormat_of_WithUnknown_Throws() {
+        assertThrown(GradleException.class,
+            () -> BundleFormat.of("rar"),
+            "Invalid bundle format: rar.");
+    }
+
+    @Test
+    public void bundleFormat_ofFileName_Works() {
+        assertEquals(BundleFormat.TAR, BundleFormat.ofFileName("bundle.tar"));
+        assertEquals(BundleFormat.TAR_GZ, BundleFormat.ofFileName("bundle.tar.gz"));
+        assertEquals(BundleFormat.ZIP, BundleFormat.ofFileName("bundle.zip"));
+        assertEquals(BundleFormat.TAR, BundleFormat.ofFileName("bundle"));
+    }
+
+    @Test
+    public void bundleFormat_MediaTypes() {
+        assertEquals("application/x-tar", BundleFormat.TAR.getMediaType());
+        assertEquals("application/gzip", BundleFormat.TAR_GZ.getMediaType());
+        assertEquals("application/zip", BundleFormat.ZIP.getMediaType());
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.jonloucks.contracts.test.Tools.assertInstantiateThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class BundleSplitterTests {
+
+    @Test
+    public void bundleSplitter_getModulePath_Works() {
+        assertEquals("io/github/example/library",
+            BundleSplitter.getModulePath("io/github/example/library/1.0.0/library-1.0.0.jar"));
+        assertEquals("io/github/example/library",
+            BundleSplitter.getModulePath("io/github/example/library/maven-metadata.xml.sha1"));
+        assertEquals("", BundleSplitter.getModulePath("readme.txt"));
+    }
+
+    @Test
+    public void bundleSplitter_split_KeepsModulesTogether(@TempDir Path tempDir) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        for (int module = 0; module < 6; module++) {
+            addModule(tempDir, entries, "module" + module, 300);
+        }
+
+        final List<List<Entry>> bundles = BundleSplitter.split(entries, 1000);
+
+        assertEquals(2, bundles.size());
+        final Set<String> seenModules = new HashSet<>();
+        for (List<Entry> bundle : bundles) {
+            long size = 0;
+            final Set<String> bundleModules = new HashSet<>();
+            for (Entry entry : bundle) {
+                size += entry.getFile().length();
+                bundleModules.add(BundleSplitter.getModulePath(entry.getPath()));
+            }
+            assertTrue(size <= 1000, "Bundle should not exceed the maximum size.");
+            for (String module : bundleModules) {
+                assertTrue(seenModules.add(module), "Module should be in one bundle: " + module);
+            }
+        }
+        assertEquals(6, seenModules.size());
+    }
+
+    @Test
+    public void bundleSplitter_split_WithLargeModule_GetsOwnBundle(@TempDir Path tempDir) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        addModule(tempDir, entries, "large", 2000);
+        addModule(tempDir, entries, "small", 100);
+
+        final List<List<Entry>> bundles = BundleSplitter.split(entries, 1000);
+
+        assertEquals(2, bundles.size());
+        assertEquals("io/github/large", BundleSplitter.getModulePath(bundles.get(0).get(0).getPath()));
+    }
+
+    @Test
+    public void bundleSplitter_split_WithInvalidSize_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> BundleSplitter.split(new ArrayList<>(), 0));
+    }
+
+    @Test
+    public void bundleSplitter_Instantiate_Throws() {
+        assertInstantiateThrows(BundleSplitter.class);
+    }
+
+    private static void addModule(Path tempDir, List<Entry> entries, String name, int jarSize) throws IOException {
+        final String directory = "io/github/" + name + "/1.0.0/";
+        final Path jar = tempDir.resolve(name + ".jar");
+        final Path pom = tempDir.resolve(name + ".pom");
+        Files.write(jar, new byte[jarSize - 10]);
+        Files.write(pom, new byte[10]);
+        entries.add(new Entry(directory + name + "-1.0.0.jar", jar.toFile()));
+        entries.add(new Entry(directory + name + "-1.0.0.pom", pom.toFile()));
+    }
+}
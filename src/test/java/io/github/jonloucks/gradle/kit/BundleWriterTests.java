@@ -0,0 +1,234 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static io.github.jonloucks.contracts.test.Tools.assertInstantiateThrows;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class BundleWriterTests {
+
+    @ParameterizedTest
+    @EnumSource(BundleFormat.class)
+    public void bundleWriter_write_RoundTrips(BundleFormat format, @TempDir Path tempDir) throws Exception {
+        final Map<String, byte[]> contents = createContents();
+        final List<Entry> entries = createEntries(tempDir, contents);
+        final File bundleFile = tempDir.resolve("bundle." + format.getExtension()).toFile();
+
+        BundleWriter.write(format, entries, bundleFile);
+
+        final Map<String, byte[]> read = readBundle(format, bundleFile);
+        assertEquals(contents.keySet(), read.keySet());
+        for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+            assertArrayEquals(content.getValue(), read.get(content.getKey()), content.getKey());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(BundleFormat.class)
+    public void bundleWriter_write_IsReproducible(BundleFormat format, @TempDir Path tempDir) throws Exception {
+        final Map<String, byte[]> contents = createContents();
+        final List<Entry> entries = createEntries(tempDir, contents);
+        final File firstFile = tempDir.resolve("first." + format.getExtension()).toFile();
+        final File secondFile = tempDir.resolve("second." + format.getExtension()).toFile();
+
+        BundleWriter.write(format, entries, firstFile);
+        for (Entry entry : entries) {
+            assertTrue(entry.getFile().setLastModified(entry.getFile().lastModified() - 86_400_000L));
+        }
+        Collections.reverse(entries);
+        BundleWriter.write(format, entries, secondFile);
+
+        assertArrayEquals(Files.readAllBytes(firstFile.toPath()), Files.readAllBytes(secondFile.toPath()),
+            "Bundles should be identical.");
+        final List<String> paths = new ArrayList<>(readBundle(format, firstFile).keySet());
+        final List<String> sortedPaths = new ArrayList<>(paths);
+        Collections.sort(sortedPaths);
+        assertEquals(sortedPaths, paths, "Entries should be sorted.");
+    }
+
+    @Test
+    public void bundleWriter_write_Zip_RemovesCompressedEntries(@TempDir Path tempDir) throws Exception {
+        final Path entriesDir = Files.createDirectories(tempDir.resolve("entries"));
+        final Path bundleDir = Files.createDirectories(tempDir.resolve("bundle"));
+        final List<Entry> entries = createEntries(entriesDir, createContents());
+        final File bundleFile = bundleDir.resolve("bundle.zip").toFile();
+
+        BundleWriter.write(BundleFormat.ZIP, entries, bundleFile);
+
+        try (Stream<Path> paths = Files.list(bundleDir)) {
+            assertEquals(Collections.singletonList(bundleFile.toPath()), paths.collect(Collectors.toList()),
+                "Only the bundle should remain.");
+        }
+    }
+
+    @Test
+    public void bundleWriter_write_WithNoEntries_Works(@TempDir Path tempDir) throws Exception {
+        for (BundleFormat format : BundleFormat.values()) {
+            final File bundleFile = tempDir.resolve("empty." + format.getExtension()).toFile();
+
+            BundleWriter.write(format, Collections.emptyList(), bundleFile);
+
+            assertTrue(readBundle(format, bundleFile).isEmpty(), "Bundle should be empty.");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(BundleFormat.class)
+    public void bundleWriter_write_WithEmptyDirectories_OnlyBundlesFiles(BundleFormat format, @TempDir Path tempDir)
+        throws Exception {
+        final Path staging = Files.createDirectories(tempDir.resolve("staging"));
+        final Path versionDir = Files.createDirectories(staging.resolve("io/github/example/library/1.0.0"));
+        Files.createDirectories(staging.resolve("io/github/example/empty/1.0.0"));
+        Files.write(versionDir.resolve("library-1.0.0.pom"), "<project/>".getBytes(UTF_8));
+        final Project project = ProjectBuilder.builder().withProjectDir(tempDir.toFile()).build();
+        final File bundleFile = tempDir.resolve("bundle." + format.getExtension()).toFile();
+
+        BundleWriter.write(format, PublisherBundleTask.collectEntries(project.files(staging)), bundleFile);
+
+        final Map<String, byte[]> read = readBundle(format, bundleFile);
+        assertEquals(Collections.singleton("io/github/example/library/1.0.0/library-1.0.0.pom"), read.keySet());
+    }
+
+    @Test
+    public void bundleWriter_createTarHeader_Over8GiB_IsReadByTarReaders() {
+        final long size = 9L * 1024 * 1024 * 1024 + 7;
+
+        final byte[] header = BundleWriter.createTarHeader("library-1.0.0.jar".getBytes(UTF_8), size, 0, (byte) '0');
+
+        final TarArchiveEntry entry = new TarArchiveEntry(header);
+        assertEquals("library-1.0.0.jar", entry.getName());
+        assertEquals(size, entry.getSize());
+        assertTrue(entry.isCheckSumOK(), "Checksum should be valid.");
+    }
+
+    @Test
+    public void bundleWriter_createTarHeader_Under8GiB_IsOctal() {
+        final long size = 8L * 1024 * 1024 * 1024 - 1;
+
+        final byte[] header = BundleWriter.createTarHeader("library-1.0.0.jar".getBytes(UTF_8), size, 0, (byte) '0');
+
+        assertEquals("77777777777", new String(header, 124, 11, UTF_8));
+        assertEquals(size, new TarArchiveEntry(header).getSize());
+    }
+
+    @Test
+    public void bundleWriter_Instantiate_Throws() {
+        assertInstantiateThrows(BundleWriter.class);
+    }
+
+    static Map<String, byte[]> readBundle(BundleFormat format, File bundleFile) throws IOException {
+        if (BundleFormat.ZIP == format) {
+            return readZip(bundleFile);
+        }
+        try (InputStream inputStream = Files.newInputStream(bundleFile.toPath())) {
+            return readTar(BundleFormat.TAR_GZ == format ? new GZIPInputStream(inputStream) : inputStream);
+        }
+    }
+
+    private static Map<String, byte[]> readZip(File bundleFile) throws IOException {
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(bundleFile)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                assertFalse(entry.isDirectory(), entry.getName());
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    contents.put(entry.getName(), readAll(inputStream));
+                }
+            }
+        }
+        final Map<String, byte[]> streamed = new LinkedHashMap<>();
+        try (ZipInputStream zipStream = new ZipInputStream(Files.newInputStream(bundleFile.toPath()))) {
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                streamed.put(entry.getName(), readAll(zipStream));
+            }
+        }
+        assertEquals(contents.keySet(), streamed.keySet(), "Local headers should match the central directory.");
+        return contents;
+    }
+
+    private static Map<String, byte[]> readTar(InputStream inputStream) throws IOException {
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        try (TarArchiveInputStream tarStream = new TarArchiveInputStream(inputStream)) {
+            TarArchiveEntry entry;
+            while ((entry = tarStream.getNextEntry()) != null) {
+                assertTrue(entry.isFile(), entry.getName());
+                contents.put(entry.getName(), readAll(tarStream));
+            }
+        }
+        return contents;
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Map<String, byte[]> createContents() {
+        final Map<String, byte[]> contents = new LinkedHashMap<>();
+        final Random random = new Random(42);
+        final byte[] large = new byte[3 * 1024 * 1024 + 7];
+        random.nextBytes(large);
+        contents.put("io/github/example/library/1.0.0/library-1.0.0.pom", "<project/>".getBytes(UTF_8));
+        contents.put("io/github/example/library/1.0.0/library-1.0.0.jar", large);
+        contents.put("io/github/example/library/1.0.0/empty.txt", new byte[0]);
+        contents.put(repeat("long-directory-name/", 6) + "library-1.0.0-javadoc.jar", new byte[]{1, 2, 3});
+        contents.put("io/github/example/" + repeat("x", 120) + "-sources.jar", new byte[]{4, 5, 6});
+        contents.put(repeat("very-long-directory-name/", 12) + "library-1.0.0-tests.jar", new byte[]{7, 8, 9});
+        return contents;
+    }
+
+    private static List<Entry> createEntries(Path tempDir, Map<String, byte[]> contents) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<String, byte[]> content : contents.entrySet()) {
+            final Path path = tempDir.resolve("file-" + index++);
+            Files.write(path, content.getValue());
+            entries.add(new Entry(content.getKey(), path.toFile()));
+        }
+        return entries;
+    }
+
+    private static String repeat(String text, int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
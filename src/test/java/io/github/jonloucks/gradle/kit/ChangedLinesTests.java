@@ -0,0 +1,86 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ChangedLinesTests {
+
+    @Test
+    public void changedLines_read_WithNullDirectory_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> ChangedLines.read(null, "origin/main"),
+            "Repository directory must be present.");
+    }
+
+    @Test
+    public void changedLines_read_WithNullBaseRef_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> ChangedLines.read(new File("."), null),
+            "Base ref must be present.");
+    }
+
+    @Test
+    public void changedLines_read_WithoutBaseRef_ThrowsActionable(@TempDir Path tempDir) {
+        final GradleException thrown = assertThrows(GradleException.class,
+            () -> ChangedLines.read(tempDir.toFile(), "origin/main"));
+
+        assertTrue(thrown.getMessage().startsWith("Unable to find the merge base of origin/main and HEAD."),
+            thrown.getMessage());
+        assertTrue(thrown.getMessage().contains("'fetch-depth: 0'"), "Message should name the fix.");
+    }
+
+    @Test
+    public void changedLines_parse_WithoutChanges_IsEmpty() {
+        assertTrue(ChangedLines.parse(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void changedLines_parse_CollectsAddedLines() {
+        final Map<String, BitSet> changes = ChangedLines.parse(Arrays.asList(
+            "diff --git a/src/main/java/a/Sample.java b/src/main/java/a/Sample.java",
+            "index 1111111..2222222 100644",
+            "--- a/src/main/java/a/Sample.java",
+            "+++ b/src/main/java/a/Sample.java",
+            "@@ -3 +3 @@ class Sample {",
+            "-    int a;",
+            "+    int b;",
+            "@@ -10,0 +11,2 @@ class Sample {",
+            "+    int c;",
+            "+    int d;",
+            "@@ -20,3 +22,0 @@ class Sample {",
+            "-    int e;",
+            "diff --git a/src/main/java/a/Gone.java b/src/main/java/a/Gone.java",
+            "--- a/src/main/java/a/Gone.java",
+            "+++ /dev/null",
+            "@@ -1,2 +0,0 @@",
+            "-class Gone {",
+            "-}"));
+
+        assertEquals(1, changes.size());
+        final BitSet lines = changes.get("src/main/java/a/Sample.java");
+        assertNotNull(lines);
+        assertEquals(3, lines.cardinality());
+        assertTrue(lines.get(3) && lines.get(11) && lines.get(12), "Added lines should be changed.");
+    }
+
+    @Test
+    public void changedLines_parse_WithOnlyDeletions_IsEmpty() {
+        final Map<String, BitSet> changes = ChangedLines.parse(Arrays.asList(
+            "--- a/Sample.java",
+            "+++ b/Sample.java",
+            "@@ -5,2 +4,0 @@"));
+
+        assertTrue(changes.isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the single pass checksum engine with the previous path,
+ * one 1 KiB stream read per algorithm and String.format hex encoding.
+ * The file size in MiB can be changed with the 'kit.benchmark.checksum.mib' system property.
+ */
+@Tag("benchmark")
+public final class ChecksumsBenchmark {
+
+    @Test
+    public void benchmark_Checksums(@TempDir Path tempDir) throws Exception {
+        final File file = createFile(tempDir, Integer.getInteger("kit.benchmark.checksum.mib", 256));
+
+        // warm up both paths before measuring
+        previousPath(file);
+        singlePass(file);
+
+        final long previousNanos = previousPath(file);
+        final long singlePassNanos = singlePass(file);
+
+        System.out.printf("Checksums of %d MiB: previous MD5+SHA1 %.2f ms, single pass MD5+SHA1+SHA256+SHA512 %.2f ms%n",
+            file.length() / (1024 * 1024), previousNanos / 1e6, singlePassNanos / 1e6);
+
+        assertTrue(previousNanos > 0 && singlePassNanos > 0, "Benchmark must measure elapsed time.");
+    }
+
+    private static long singlePass(File file) {
+        final long start = System.nanoTime();
+        Checksums.create(file);
+        return System.nanoTime() - start;
+    }
+
+    private static long previousPath(File file) throws Exception {
+        final long start = System.nanoTime();
+        for (String algorithm : new String[]{"MD5", "SHA1"}) {
+            final MessageDigest digest = MessageDigest.getInstance(algorithm);
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                final byte[] buffer = new byte[1024];
+                int bytesCount;
+                while ((bytesCount = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, bytesCount);
+                }
+            }
+            final StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(String.format("%02x", b));
+            }
+            assertTrue(builder.length() > 0, "Digest must be present.");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static File createFile(Path tempDir, int mebibytes) throws Exception {
+        final Path path = tempDir.resolve("archive.zip");
+        final byte[] chunk = new byte[1024 * 1024];
+        final Random random = new Random(42);
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            for (int i = 0; i < mebibytes; i++) {
+                random.nextBytes(chunk);
+                outputStream.write(chunk);
+            }
+        }
+        return path.toFile();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.Checksums.Algorithm;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static io.github.jonloucks.contracts.test.Tools.assertInstantiateThrows;
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ChecksumsTests {
+
+    @Test
+    public void checksums_create_WithNullFile_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> Checksums.create(null),
+            "File must be present.");
+    }
+
+    @Test
+    public void checksums_create_WithFileNotFound_Throws(@TempDir Path tempDir) {
+        assertThrown(GradleException.class,
+            () -> Checksums.create(tempDir.resolve("missing.txt").toFile()),
+            "Unable to generate checksums.");
+    }
+
+    @Test
+    public void checksums_create_WritesEveryAlgorithm(@TempDir Path tempDir) throws Exception {
+        final File file = tempDir.resolve("kit.dat").toFile();
+        final byte[] content = new byte[10_000];
+        new Random(7).nextBytes(content);
+        Files.write(file.toPath(), content);
+
+        Checksums.create(file);
+
+        for (Algorithm algorithm : Algorithm.values()) {
+            assertTrue(new File(file.getAbsolutePath() + "." + algorithm.getExtension()).isFile(),
+                algorithm + " checksum file must exist.");
+        }
+    }
+
+    @Test
+    public void checksums_create_WritesKnownDigests(@TempDir Path tempDir) throws Exception {
+        final File file = tempDir.resolve("abc.txt").toFile();
+        Files.write(file.toPath(), "abc".getBytes(US_ASCII));
+
+        Checksums.create(file);
+
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", readChecksum(file, "md5"));
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", readChecksum(file, "sha1"));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", readChecksum(file, "sha256"));
+        assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a" +
+            "2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f", readChecksum(file, "sha512"));
+    }
+
+    @Test
+    public void checksums_digest_WithLargerThanBufferFile_MatchesMessageDigest(@TempDir Path tempDir) throws Exception {
+        final File file = tempDir.resolve("large.dat").toFile();
+        final byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        Files.write(file.toPath(), content);
+
+        final byte[][] digests = Checksums.digest(file, Algorithm.values());
+
+        for (int i = 0; i < digests.length; i++) {
+            assertArrayEquals(Algorithm.values()[i].createDigest().digest(content), digests[i]);
+        }
+    }
+
+    @Test
+    public void checksums_toHex_Works() {
+        assertEquals("", Checksums.toHex(new byte[0]));
+        assertEquals("00017f80ff", Checksums.toHex(new byte[]{0, 1, 127, -128, -1}));
+    }
+
+    @Test
+    public void checksums_isChecksumFileName_Works() {
+        assertTrue(Checksums.isChecksumFileName("library-1.0.jar.sha512"));
+        assertTrue(Checksums.isChecksumFileName("library-1.0.pom.md5"));
+        assertFalse(Checksums.isChecksumFileName("library-1.0.jar"));
+        assertFalse(Checksums.isChecksumFileName("library-1.0.jar.asc"));
+    }
+
+    @Test
+    public void checksums_Instantiate_Throws() {
+        assertInstantiateThrows(Checksums.class);
+    }
+
+    private static String readChecksum(File file, String extension) throws Exception {
+        return new String(Files.readAllBytes(new File(file.getAbsolutePath() + "." + extension).toPath()), US_ASCII);
+    }
+}
@@ -39,6 +39,57 @@ public final class ConfigsTests {
         assertEquals(21, optional.get().asInt());
     }
     
+    @Test
+    public void configs_getConfig_BundleFormat_Works() {
+        assertEquals(Optional.of(BundleFormat.TAR), withGetConfig(KIT_BUNDLE_FORMAT, null));
+        assertEquals(Optional.of(BundleFormat.ZIP), withGetConfig(KIT_BUNDLE_FORMAT, "zip"));
+    }
+    
+    @Test
+    public void configs_getConfig_StagingHardLinks_Works() {
+        assertEquals(Optional.of(false), withGetConfig(KIT_STAGING_HARD_LINKS, null));
+        assertEquals(Optional.of(true), withGetConfig(KIT_STAGING_HARD_LINKS, "true"));
+    }
+    
+    @Test
+    public void configs_getConfig_CoverageParallelism_Works() {
+        assertEquals(Optional.of(Runtime.getRuntime().availableProcessors()),
+            withGetConfig(KIT_COVERAGE_PARALLELISM, null));
+        assertEquals(Optional.of(2), withGetConfig(KIT_COVERAGE_PARALLELISM, "2"));
+    }
+    
+    @Test
+    public void configs_getConfig_CoverageAgentIncludes_Works() {
+        assertEquals(Optional.of("auto"), withGetConfig(KIT_COVERAGE_AGENT_INCLUDES, null));
+        assertEquals(Optional.of("io.github.*"), withGetConfig(KIT_COVERAGE_AGENT_INCLUDES, "io.github.*"));
+    }
+    
+    @Test
+    public void configs_getConfig_CoveragePerModule_Works() {
+        assertEquals(Optional.of(false), withGetConfig(KIT_COVERAGE_PER_MODULE, null));
+        assertEquals(Optional.of(true), withGetConfig(KIT_COVERAGE_PER_MODULE, "true"));
+    }
+    
+    @Test
+    public void configs_getConfig_CoverageDiffBase_Works() {
+        assertEquals(Optional.empty(), withGetConfig(KIT_COVERAGE_DIFF_BASE, null));
+        assertEquals(Optional.of("origin/release"), withGetConfig(KIT_COVERAGE_DIFF_BASE, "origin/release"));
+    }
+    
+    @Test
+    public void configs_getConfig_SigningCacheEnabled_Works() {
+        assertEquals(Optional.of(true), withGetConfig(KIT_SIGNING_CACHE_ENABLED, null));
+        assertEquals(Optional.of(false), withGetConfig(KIT_SIGNING_CACHE_ENABLED, "false"));
+    }
+    
+    @Test
+    public void configs_getConfig_BundleSplit_Works() {
+        assertEquals(Optional.empty(), withGetConfig(KIT_BUNDLE_SPLIT_SIZE, null));
+        assertEquals(Optional.of(64), withGetConfig(KIT_BUNDLE_SPLIT_SIZE, " 64 "));
+        assertEquals(Optional.of(4), withGetConfig(KIT_UPLOAD_PARALLELISM, null));
+        assertEquals(Optional.of(8), withGetConfig(KIT_UPLOAD_PARALLELISM, "8"));
+    }
+    
     @Test
     public void configs_getConfig_SplitWorks() {
         final Optional<String[]> optional = withGetConfig(KIT_EXCLUDE_TAGS, "green,blue,red");
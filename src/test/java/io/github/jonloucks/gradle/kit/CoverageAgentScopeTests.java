@@ -0,0 +1,111 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.Project;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CoverageAgentScopeTests {
+
+    @Test
+    public void coverageAgentScope_toIncludes_WithNull_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> CoverageAgentScope.toIncludes(null),
+            "Source directories must be present.");
+    }
+
+    @Test
+    public void coverageAgentScope_toIncludes_KeepsTopMostPackages(@TempDir Path tempDir) throws IOException {
+        final Path java = tempDir.resolve("java");
+        final Path generated = tempDir.resolve("generated");
+        writeSource(java.resolve("io/github/kit/Sample.java"));
+        writeSource(java.resolve("io/github/kit/impl/SampleImpl.java"));
+        writeSource(java.resolve("io/github/kitten/Other.java"));
+        writeSource(generated.resolve("org/example/Generated.java"));
+        Files.createDirectories(java.resolve("io/github/empty"));
+
+        assertEquals(Arrays.asList("io.github.kit.*", "io.github.kitten.*", "org.example.*"),
+            CoverageAgentScope.toIncludes(Arrays.asList(java.toFile(), generated.toFile(),
+                tempDir.resolve("missing").toFile())));
+    }
+
+    @Test
+    public void coverageAgentScope_toIncludes_WithDefaultPackage_IsEmpty(@TempDir Path tempDir) throws IOException {
+        writeSource(tempDir.resolve("Sample.java"));
+        writeSource(tempDir.resolve("io/github/kit/Other.java"));
+
+        assertTrue(CoverageAgentScope.toIncludes(Collections.singletonList(tempDir.toFile())).isEmpty());
+    }
+
+    @Test
+    public void coverageAgentScope_toIncludes_WithOtherLanguages_Works(@TempDir Path tempDir) throws IOException {
+        writeSource(tempDir.resolve("kotlin/io/github/kotlin/Sample.kt"));
+        writeSource(tempDir.resolve("groovy/io/github/groovy/Sample.groovy"));
+        writeSource(tempDir.resolve("resources/io/github/resources/sample.properties"));
+
+        assertEquals(Arrays.asList("io.github.groovy.*", "io.github.kotlin.*"),
+            CoverageAgentScope.toIncludes(Collections.singletonList(tempDir.toFile())));
+    }
+
+    @Test
+    public void coverageAgentScope_getSourceDirectories_SkipsResources(@TempDir Path tempDir) {
+        final Project project = ProjectBuilder.builder().withProjectDir(tempDir.toFile()).build();
+        project.getPlugins().apply("groovy");
+        final SourceSet main = project.getExtensions().getByType(SourceSetContainer.class).getByName("main");
+
+        final Set<File> directories = CoverageAgentScope.getSourceDirectories(main);
+
+        assertTrue(directories.contains(tempDir.resolve("src/main/java").toFile()), "Java should be included.");
+        assertTrue(directories.contains(tempDir.resolve("src/main/groovy").toFile()), "Groovy should be included.");
+        assertFalse(directories.contains(tempDir.resolve("src/main/resources").toFile()), "Resources are not sources.");
+    }
+
+    @Test
+    public void coverageAgentScope_lazy_ResolvesOnFirstRead(@TempDir Path tempDir) {
+        final Project project = ProjectBuilder.builder().withProjectDir(tempDir.toFile()).build();
+        final AtomicInteger calls = new AtomicInteger();
+
+        final List<String> patterns = CoverageAgentScope.lazy(project.provider(() -> {
+            calls.incrementAndGet();
+            return Collections.singletonList("io.github.*");
+        }));
+
+        assertEquals(0, calls.get(), "Patterns should not be computed before they are read.");
+        assertEquals(Collections.singletonList("io.github.*"), patterns);
+        assertEquals(1, patterns.size());
+        assertEquals(1, calls.get(), "Patterns should be computed once.");
+    }
+
+    @Test
+    public void coverageAgentScope_lazy_WithNull_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> CoverageAgentScope.lazy(null),
+            "Patterns must be present.");
+    }
+
+    @Test
+    public void coverageAgentScope_parse_SplitsPatterns() {
+        assertEquals(Arrays.asList("io.github.*", "org.example.Sample", "com.*"),
+            CoverageAgentScope.parse(" io.github.*:org.example.Sample, com.* ,"));
+    }
+
+    private static void writeSource(Path source) throws IOException {
+        Files.createDirectories(source.getParent());
+        Files.write(source, new byte[]{'/', '/'});
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CoverageEngine.Execution;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.internal.data.CRC64;
+import org.jacoco.core.tools.ExecFileLoader;
+import org.jacoco.report.DirectorySourceFileLocator;
+import org.jacoco.report.FileMultiReportOutput;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.MultiReportVisitor;
+import org.jacoco.report.MultiSourceFileLocator;
+import org.jacoco.report.csv.CSVFormatter;
+import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.xml.XMLFormatter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the kit coverage engine with the stock report pipeline, which loads execution files one by one
+ * and analyzes every class directory serially, on synthetic modules with 20 classes each, 300 modules by default.
+ * The module count can be changed with the 'kit.benchmark.modules' system property, the first value is used.
+ */
+@Tag("benchmark")
+public final class CoverageBenchmark {
+
+    @Test
+    public void benchmark_CoverageReport(@TempDir Path tempDir) throws Exception {
+        final int moduleCount = Integer.parseInt(System.getProperty("kit.benchmark.modules", "300").split(",")[0].trim());
+        final List<Module> modules = createModules(tempDir.resolve("modules"), moduleCount);
+        final List<File> executionFiles = modules.stream().map(m -> m.executionFile).collect(Collectors.toList());
+        final List<File> classDirectories = modules.stream().map(m -> m.classDirectory).collect(Collectors.toList());
+        final List<File> sourceDirectories = modules.stream().map(m -> m.sourceDirectory).distinct()
+            .collect(Collectors.toList());
+
+        final long stockStart = System.nanoTime();
+        final IBundleCoverage stock = stockReport(executionFiles, classDirectories, sourceDirectories,
+            tempDir.resolve("stock"));
+        final long stockNanos = System.nanoTime() - stockStart;
+
+        final long kitStart = System.nanoTime();
+        final CoverageEngine engine = new CoverageEngine(Runtime.getRuntime().availableProcessors());
+        final Execution execution = engine.merge(executionFiles);
+        final IBundleCoverage kit = engine.analyze(execution, classDirectories, "benchmark");
+        final Path kitReports = tempDir.resolve("kit");
+        CoverageEngine.writeReports(execution, kit, sourceDirectories, kitReports.resolve("coverage.xml").toFile(),
+            kitReports.resolve("coverage.csv").toFile(), kitReports.resolve("html").toFile());
+        final long kitNanos = System.nanoTime() - kitStart;
+
+        System.out.printf("Coverage of %d modules, %d classes: stock %8.1f ms, kit %8.1f ms on %d threads (%.1fx)%n",
+            moduleCount, kit.getClassCounter().getTotalCount(), stockNanos / 1e6, kitNanos / 1e6,
+            Runtime.getRuntime().availableProcessors(), (double) stockNanos / kitNanos);
+
+        assertEquals(stock.getInstructionCounter().getTotalCount(), kit.getInstructionCounter().getTotalCount());
+        assertEquals(stock.getInstructionCounter().getCoveredCount(), kit.getInstructionCounter().getCoveredCount());
+    }
+
+    private static IBundleCoverage stockReport(List<File> executionFiles, List<File> classDirectories,
+                                               List<File> sourceDirectories, Path reports) throws IOException {
+        final ExecFileLoader loader = new ExecFileLoader();
+        for (File executionFile : executionFiles) {
+            loader.load(executionFile);
+        }
+        final CoverageBuilder builder = new CoverageBuilder();
+        final Analyzer analyzer = new Analyzer(loader.getExecutionDataStore(), builder);
+        for (File classDirectory : classDirectories) {
+            analyzer.analyzeAll(classDirectory);
+        }
+        final IBundleCoverage bundle = builder.getBundle("benchmark");
+
+        Files.createDirectories(reports);
+        try (OutputStream xml = Files.newOutputStream(reports.resolve("coverage.xml"));
+             OutputStream csv = Files.newOutputStream(reports.resolve("coverage.csv"))) {
+            final IReportVisitor visitor = new MultiReportVisitor(Arrays.asList(
+                new XMLFormatter().createVisitor(xml),
+                new CSVFormatter().createVisitor(csv),
+                new HTMLFormatter().createVisitor(new FileMultiReportOutput(reports.resolve("html").toFile()))));
+            final MultiSourceFileLocator locator = new MultiSourceFileLocator(4);
+            for (File sourceDirectory : sourceDirectories) {
+                locator.add(new DirectorySourceFileLocator(sourceDirectory, UTF_8.name(), 4));
+            }
+            visitor.visitInfo(loader.getSessionInfoStore().getInfos(), loader.getExecutionDataStore().getContents());
+            visitor.visitBundle(bundle, locator);
+            visitor.visitEnd();
+        }
+        return bundle;
+    }
+
+    private static final class Module {
+        private Module(File sourceDirectory, File classDirectory, File executionFile) {
+            this.sourceDirectory = sourceDirectory;
+            this.classDirectory = classDirectory;
+            this.executionFile = executionFile;
+        }
+
+        private final File sourceDirectory;
+        private final File classDirectory;
+        private final File executionFile;
+    }
+
+    /**
+     * Every method is straight line code, so each class has one probe per method plus one for the constructor
+     */
+    private static List<Module> createModules(Path directory, int moduleCount) throws IOException {
+        final Path sources = directory.resolve("sources");
+        final Path compiled = directory.resolve("compiled");
+        final List<String> sourceFiles = new ArrayList<>();
+        for (int module = 0; module < moduleCount; module++) {
+            for (int type = 0; type < CLASSES_PER_MODULE; type++) {
+                sourceFiles.add(writeSource(sources, getPackageName(module), "Type" + type).toString());
+            }
+        }
+        Files.createDirectories(compiled);
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<String> arguments = new ArrayList<>(Arrays.asList("-g", "-d", compiled.toString()));
+        arguments.addAll(sourceFiles);
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])), "Sources must compile.");
+
+        final Random random = new Random(42);
+        final List<Module> modules = new ArrayList<>();
+        for (int module = 0; module < moduleCount; module++) {
+            final String packagePath = getPackageName(module).replace('.', '/');
+            final Path moduleDirectory = directory.resolve(String.format("module-%04d", module));
+            final Path classDirectory = moduleDirectory.resolve("classes");
+            Files.createDirectories(classDirectory.resolve(packagePath).getParent());
+            Files.move(compiled.resolve(packagePath), classDirectory.resolve(packagePath));
+            final Path executionFile = moduleDirectory.resolve("test.exec");
+            writeExecution(classDirectory.resolve(packagePath), packagePath, executionFile, random);
+            modules.add(new Module(sources.toFile(), classDirectory.toFile(), executionFile.toFile()));
+        }
+        return modules;
+    }
+
+    private static Path writeSource(Path sources, String packageName, String typeName) throws IOException {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\npublic class ").append(typeName).append(" {\n");
+        for (int method = 0; method < METHODS_PER_CLASS; method++) {
+            source.append("    public int method").append(method).append("(int value) {\n")
+                .append("        int result = value * ").append(method + 1).append(";\n")
+                .append("        result += value >>> ").append(method % 7).append(";\n")
+                .append("        return result;\n")
+                .append("    }\n");
+        }
+        source.append("}\n");
+        final Path file = sources.resolve(packageName.replace('.', '/')).resolve(typeName + ".java");
+        Files.createDirectories(file.getParent());
+        return Files.write(file, source.toString().getBytes(UTF_8));
+    }
+
+    private static void writeExecution(Path packageDirectory, String packagePath, Path executionFile, Random random)
+        throws IOException {
+        final List<Path> classFiles;
+        try (Stream<Path> paths = Files.list(packageDirectory)) {
+            classFiles = paths.sorted().collect(Collectors.toList());
+        }
+        try (OutputStream output = Files.newOutputStream(executionFile)) {
+            final ExecutionDataWriter writer = new ExecutionDataWriter(output);
+            writer.visitSessionInfo(new SessionInfo(packagePath, 1, 2));
+            for (Path classFile : classFiles) {
+                final String fileName = classFile.getFileName().toString();
+                final boolean[] probes = new boolean[METHODS_PER_CLASS + 1];
+                for (int i = 0; i < probes.length; i++) {
+                    probes[i] = random.nextBoolean();
+                }
+                writer.visitClassExecution(new ExecutionData(CRC64.classId(Files.readAllBytes(classFile)),
+                    packagePath + "/" + fileName.substring(0, fileName.length() - ".class".length()), probes));
+            }
+            writer.flush();
+        }
+    }
+
+    private static String getPackageName(int module) {
+        return String.format("example.module%04d", module);
+    }
+
+    private static final int CLASSES_PER_MODULE = 20;
+    private static final int METHODS_PER_CLASS = 10;
+}
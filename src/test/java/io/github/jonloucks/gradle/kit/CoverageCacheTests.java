@@ -0,0 +1,164 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CachedCoverage.ClassNode;
+import io.github.jonloucks.gradle.kit.CoverageEngine.Execution;
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.gradle.kit.CoverageEngineTests.copyClass;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CoverageCacheTests {
+
+    @Test
+    public void coverageCache_load_WithNullFile_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> CoverageCache.load(null),
+            "Cache file must be present.");
+    }
+
+    @Test
+    public void coverageCache_load_WithDamagedFile_IsEmpty(@TempDir Path tempDir) throws IOException {
+        final File cacheFile = tempDir.resolve("coverage-analysis.bin").toFile();
+        Files.write(cacheFile.toPath(), new byte[]{0x4B, 0x49, 0x54});
+
+        final CoverageCache cache = CoverageCache.load(cacheFile);
+
+        assertFalse(cache.find(CoverageCache.hash(new byte[]{1}), new ExecutionDataStore()).isPresent());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void coverageCache_load_WithOtherJacocoVersion_IsEmpty(@TempDir Path tempDir) throws IOException {
+        final byte[] classBytes = readClass(BundleSplitter.class);
+        final String sha256 = CoverageCache.hash(classBytes);
+        final ExecutionDataStore noData = new ExecutionDataStore();
+        final File cacheFile = tempDir.resolve("coverage-analysis.bin").toFile();
+        final CoverageCache saved = CoverageCache.load(cacheFile);
+        saved.put(sha256, analyze(classBytes, noData), noData);
+        saved.save(cacheFile);
+        assertTrue(CoverageCache.load(cacheFile).find(sha256, noData).isPresent(), "Same version should be found.");
+        final byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+        final int versionEnd = 8 + 2 + JaCoCo.VERSION.getBytes(StandardCharsets.UTF_8).length;
+        final ByteArrayOutputStream otherVersion = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(otherVersion)) {
+            output.write(bytes, 0, 8);
+            output.writeUTF(JaCoCo.VERSION + ".other");
+            output.write(bytes, versionEnd, bytes.length - versionEnd);
+        }
+        Files.write(cacheFile.toPath(), otherVersion.toByteArray());
+
+        final CoverageCache cache = CoverageCache.load(cacheFile);
+
+        assertFalse(cache.find(sha256, noData).isPresent(), "Analysis of another JaCoCo version should be dropped.");
+    }
+
+    @Test
+    public void coverageCache_find_WithChangedProbes_Misses() throws IOException {
+        final byte[] classBytes = readClass(BundleSplitter.class);
+        final String sha256 = CoverageCache.hash(classBytes);
+        final ExecutionDataStore noData = new ExecutionDataStore();
+        final CoverageCache cache = CoverageCache.load(new File("missing-coverage-analysis.bin"));
+        cache.put(sha256, analyze(classBytes, noData), noData);
+        final IClassCoverage coverage = analyze(classBytes, noData).get(0);
+        final ExecutionDataStore executed = new ExecutionDataStore();
+        executed.get(coverage.getId(), coverage.getName(), 1);
+
+        assertTrue(cache.find(sha256, noData).isPresent(), "Unchanged probes should be found.");
+        assertFalse(cache.find(sha256, executed).isPresent(), "Changed probes should be analyzed.");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void cachedCoverage_ClassNode_RoundTrip() throws IOException {
+        final IClassCoverage coverage = analyze(readClass(BundleSplitter.class), new ExecutionDataStore()).get(0);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            ClassNode.of(coverage).write(output);
+        }
+
+        final ClassNode restored = ClassNode.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(coverage.getName(), restored.getName());
+        assertEquals(coverage.getId(), restored.getId());
+        assertEquals(coverage.getPackageName(), restored.getPackageName());
+        assertEquals(coverage.getSourceFileName(), restored.getSourceFileName());
+        assertEquals(coverage.getMethods().size(), restored.getMethods().size());
+        assertEquals(coverage.getFirstLine(), restored.getFirstLine());
+        assertEquals(coverage.getLastLine(), restored.getLastLine());
+        for (CounterEntity entity : CounterEntity.values()) {
+            assertEquals(coverage.getCounter(entity), restored.getCounter(entity), entity.name());
+        }
+        for (int line = coverage.getFirstLine(); line <= coverage.getLastLine(); line++) {
+            assertEquals(coverage.getLine(line).getStatus(), restored.getLine(line).getStatus());
+        }
+    }
+
+    @Test
+    public void coverageEngine_analyze_WithCache_ReusesUnchangedClasses(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleFormat.class);
+        copyClass(classes, BundleSplitter.class);
+        final File cacheFile = tempDir.resolve("coverage-analysis.bin").toFile();
+        final CoverageEngine engine = new CoverageEngine(2);
+        final Execution execution = engine.merge(Collections.emptyList());
+
+        final CoverageCache first = CoverageCache.load(cacheFile);
+        final IBundleCoverage analyzed = engine.analyze(execution, Collections.singletonList(classes.toFile()),
+            "kit", first);
+        first.save(cacheFile);
+        final CoverageCache second = CoverageCache.load(cacheFile);
+        final IBundleCoverage cached = engine.analyze(execution, Collections.singletonList(classes.toFile()),
+            "kit", second);
+
+        assertEquals(0, first.getHits());
+        assertTrue(first.getMisses() >= 2, "All classes should be analyzed first.");
+        assertEquals(first.getMisses(), second.getHits());
+        assertEquals(0, second.getMisses());
+        for (CounterEntity entity : CounterEntity.values()) {
+            assertEquals(analyzed.getCounter(entity), cached.getCounter(entity), entity.name());
+        }
+    }
+
+    private static List<IClassCoverage> analyze(byte[] classBytes, ExecutionDataStore executionData)
+        throws IOException {
+        final List<IClassCoverage> coverages = new ArrayList<>();
+        new Analyzer(executionData, coverages::add).analyzeClass(classBytes, "BundleSplitter.class");
+        return coverages;
+    }
+
+    private static byte[] readClass(Class<?> type) throws IOException {
+        final String path = type.getName().replace('.', '/') + ".class";
+        try (InputStream input = type.getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(input, "Class file should be found.");
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
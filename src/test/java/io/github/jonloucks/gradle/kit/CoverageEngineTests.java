@@ -0,0 +1,176 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.CoverageEngine.Analysis;
+import io.github.jonloucks.gradle.kit.CoverageEngine.Execution;
+import org.gradle.api.logging.Logging;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CoverageEngineTests {
+
+    @Test
+    public void coverageEngine_WithInvalidParallelism_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new CoverageEngine(0),
+            "Parallelism must be positive.");
+    }
+
+    @Test
+    public void coverageEngine_merge_WithoutFiles_IsEmpty() {
+        final Execution execution = new CoverageEngine(2).merge(Collections.emptyList());
+
+        assertTrue(execution.getExecutionData().getContents().isEmpty());
+        assertTrue(execution.getSessionInfos().isEmpty());
+    }
+
+    @Test
+    public void coverageEngine_merge_CombinesProbes(@TempDir Path tempDir) throws IOException {
+        final List<File> executionFiles = Arrays.asList(
+            writeExecution(tempDir.resolve("a.exec"), "a", new boolean[]{true, false, false}),
+            writeExecution(tempDir.resolve("b.exec"), "b", new boolean[]{false, false, true}),
+            tempDir.resolve("missing.exec").toFile());
+
+        final Execution execution = new CoverageEngine(2).merge(executionFiles);
+
+        final ExecutionData merged = execution.getExecutionData().get(CLASS_ID);
+        assertNotNull(merged);
+        assertArrayEquals(new boolean[]{true, false, true}, merged.getProbes());
+        assertEquals(2, execution.getSessionInfos().getInfos().size());
+    }
+
+    @Test
+    public void coverageEngine_listClassFiles_OnlyListsClasses(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleFormat.class);
+        Files.write(classes.resolve("io/github/notes.txt"), new byte[]{1});
+
+        final List<File> classFiles = CoverageEngine.listClassFiles(Arrays.asList(classes.toFile(),
+            tempDir.resolve("missing").toFile()));
+
+        assertEquals(1, classFiles.size());
+        assertTrue(classFiles.get(0).getName().endsWith(".class"));
+    }
+
+    @Test
+    public void coverageEngine_analyze_WithoutExecutionData_IsNotCovered(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleFormat.class);
+        copyClass(classes, BundleSplitter.class);
+        final CoverageEngine engine = new CoverageEngine(2);
+
+        final IBundleCoverage bundle = engine.analyze(engine.merge(Collections.emptyList()),
+            Collections.singletonList(classes.toFile()), "kit");
+
+        assertEquals("kit", bundle.getName());
+        assertTrue(bundle.getClassCounter().getTotalCount() >= 2);
+        assertEquals(0, bundle.getInstructionCounter().getCoveredCount());
+    }
+
+    @Test
+    public void coverageEngine_mergeAndAnalyze_SavesAnalysisCache(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleSplitter.class);
+        final File cacheFile = tempDir.resolve("kit/coverage-analysis.bin").toFile();
+        final CoverageEngine engine = new CoverageEngine(2);
+
+        final Analysis analysis = engine.mergeAndAnalyze(Collections.emptyList(),
+            Collections.singletonList(classes.toFile()), "kit", cacheFile, Logging.getLogger(getClass()));
+
+        assertEquals("kit", analysis.getBundle().getName());
+        assertTrue(analysis.getExecution().getExecutionData().getContents().isEmpty());
+        assertTrue(cacheFile.isFile(), "Analysis cache should be saved.");
+        final CoverageCache cache = CoverageCache.load(cacheFile);
+        engine.analyze(analysis.getExecution(), Collections.singletonList(classes.toFile()), "kit", cache);
+        assertEquals(0, cache.getMisses(), "Saved analysis should be reused.");
+    }
+
+    @Test
+    public void coverageEngine_mergeAndAnalyze_WithoutCacheFile_Works(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleSplitter.class);
+
+        final Analysis analysis = new CoverageEngine(1).mergeAndAnalyze(Collections.emptyList(),
+            Collections.singletonList(classes.toFile()), "kit", null, Logging.getLogger(getClass()));
+
+        assertTrue(analysis.getBundle().getClassCounter().getTotalCount() >= 1);
+    }
+
+    @Test
+    public void coverageEngine_writeReports_WritesAllFormats(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleSplitter.class);
+        final CoverageEngine engine = new CoverageEngine(1);
+        final Execution execution = engine.merge(Collections.emptyList());
+        final IBundleCoverage bundle = engine.analyze(execution, Collections.singletonList(classes.toFile()), "kit");
+        final File xmlFile = tempDir.resolve("reports/coverage.xml").toFile();
+        final File csvFile = tempDir.resolve("reports/coverage.csv").toFile();
+        final File htmlDirectory = tempDir.resolve("reports/html").toFile();
+
+        CoverageEngine.writeReports(execution, bundle, Collections.emptyList(), xmlFile, csvFile, htmlDirectory);
+
+        assertTrue(xmlFile.length() > 0, "XML report should be written.");
+        assertTrue(csvFile.length() > 0, "CSV report should be written.");
+        assertTrue(new File(htmlDirectory, "index.html").isFile(), "HTML report should be written.");
+    }
+
+    @Test
+    public void coverageEngine_check_WithoutExecutionData_ReportsViolations(@TempDir Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleSplitter.class);
+        final CoverageEngine engine = new CoverageEngine(1);
+        final IBundleCoverage bundle = engine.analyze(engine.merge(Collections.emptyList()),
+            Collections.singletonList(classes.toFile()), "kit");
+        final Map<String, BigDecimal> minimums = new LinkedHashMap<>();
+        minimums.put("LINE", BigDecimal.valueOf(0.95));
+        minimums.put("METHOD", BigDecimal.valueOf(0.95));
+
+        final List<String> violations = CoverageEngine.check(bundle, minimums);
+
+        assertEquals(2, violations.size());
+        assertTrue(violations.get(0).startsWith("Rule violated for bundle kit: lines covered ratio is 0"),
+            violations.get(0));
+        assertTrue(CoverageEngine.check(bundle, Collections.emptyMap()).isEmpty());
+    }
+
+    static void copyClass(Path classes, Class<?> type) throws IOException {
+        final String path = type.getName().replace('.', '/') + ".class";
+        final Path target = classes.resolve(path);
+        Files.createDirectories(target.getParent());
+        try (InputStream input = type.getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(input, "Class file should be found.");
+            Files.copy(input, target);
+        }
+    }
+
+    private static File writeExecution(Path path, String session, boolean[] probes) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            final ExecutionDataWriter writer = new ExecutionDataWriter(output);
+            writer.visitSessionInfo(new SessionInfo(session, 1, 2));
+            writer.visitClassExecution(new ExecutionData(CLASS_ID, "example/Sample", probes));
+            writer.flush();
+        }
+        return path.toFile();
+    }
+
+    private static final long CLASS_ID = 0x1234L;
+}
@@ -0,0 +1,71 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.gradle.kit.CoverageEngineTests.copyClass;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CoverageSummaryTests {
+
+    @Test
+    public void coverageSummary_toJson_WithNull_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> CoverageSummary.toJson(null),
+            "Coverage must be present.");
+    }
+
+    @Test
+    public void coverageSummary_toJson_HasAllCounters(@TempDir Path tempDir) throws IOException {
+        final String json = CoverageSummary.toJson(analyze(tempDir));
+
+        assertTrue(json.startsWith("{\n  \"name\": \"kit\""), json);
+        for (String counter : new String[]{"INSTRUCTION", "BRANCH", "LINE", "COMPLEXITY", "METHOD", "CLASS"}) {
+            assertTrue(json.contains("\"" + counter + "\": {\"missed\": "), counter);
+        }
+        assertTrue(json.contains("\"covered\": 0, \"ratio\": 0.0000"), json);
+    }
+
+    @Test
+    public void coverageSummary_toCsv_HasJacocoColumns(@TempDir Path tempDir) throws IOException {
+        final String[] lines = CoverageSummary.toCsv(analyze(tempDir)).split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("GROUP,PACKAGE,CLASS,INSTRUCTION_MISSED,INSTRUCTION_COVERED,BRANCH_MISSED,BRANCH_COVERED,"
+            + "LINE_MISSED,LINE_COVERED,COMPLEXITY_MISSED,COMPLEXITY_COVERED,METHOD_MISSED,METHOD_COVERED", lines[0]);
+        assertTrue(lines[1].startsWith("kit,,,"), lines[1]);
+        assertEquals(13, lines[1].split(",", -1).length);
+    }
+
+    @Test
+    public void coverageSummary_toPercentages_WithoutExecution_IsZero(@TempDir Path tempDir) throws IOException {
+        final String percentages = CoverageSummary.toPercentages(analyze(tempDir));
+
+        assertTrue(percentages.startsWith("instruction 0.0%, branch "), percentages);
+    }
+
+    @Test
+    public void coverageSummary_write_CreatesParents(@TempDir Path tempDir) throws IOException {
+        final File file = tempDir.resolve("reports/summary/coverage.json").toFile();
+
+        CoverageSummary.write(file, "{}");
+
+        assertEquals("{}", new String(Files.readAllBytes(file.toPath()), UTF_8));
+    }
+
+    private static IBundleCoverage analyze(Path tempDir) throws IOException {
+        final Path classes = tempDir.resolve("classes");
+        copyClass(classes, BundleSplitter.class);
+        final CoverageEngine engine = new CoverageEngine(1);
+        return engine.analyze(engine.merge(Collections.emptyList()), Collections.singletonList(classes.toFile()), "kit");
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.jonloucks.gradle.kit;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.api.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.function.Supplier;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public final class KitLoggerTests {
+    
+    @Test
+    public void kitLogger_WithNullLogger_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new KitLogger(null, true),
+            "Logger must be present.");
+    }
+    
+    @Test
+    public void kitLogger_WhenDisabled_DoesNotBuildMessage(@Mock Logger logger, @Mock Supplier<String> message) {
+        when(logger.isEnabled(any(LogLevel.class))).thenReturn(true);
+        final KitLogger kitLogger = new KitLogger(logger, false);
+        
+        kitLogger.lifecycle(message);
+        kitLogger.info(message);
+        
+        assertFalse(kitLogger.isEnabled());
+        verify(message, never()).get();
+        verify(logger, never()).log(any(LogLevel.class), anyString());
+    }
+    
+    @Test
+    public void kitLogger_WhenLevelDisabled_DoesNotBuildMessage(@Mock Logger logger, @Mock Supplier<String> message) {
+        when(logger.isEnabled(LogLevel.DEBUG)).thenReturn(false);
+        final KitLogger kitLogger = new KitLogger(logger, true);
+        
+        kitLogger.debug(message);
+        
+        verify(message, never()).get();
+    }
+    
+    @Test
+    public void kitLogger_WhenEnabled_Logs(@Mock Logger logger) {
+        when(logger.isEnabled(LogLevel.LIFECYCLE)).thenReturn(true);
+        final KitLogger kitLogger = new KitLogger(logger, true);
+        
+        kitLogger.lifecycle(() -> "Hello");
+        
+        assertTrue(kitLogger.isEnabled());
+        verify(logger, times(1)).log(LogLevel.LIFECYCLE, "Hello");
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.ProfileService.ProfileRecord;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ProfileServiceTests {
+
+    @Test
+    public void profileService_register_WithNullProject_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> ProfileService.register(null),
+            "Project must be present.");
+    }
+
+    @Test
+    public void profileService_profile_RecordsRealizedTasks() {
+        final Project project = ProjectBuilder.builder().build();
+        final ProfileService service = ProfileService.register(project).get();
+
+        service.profile(project, "SomeApplier", "apply", () -> {
+            project.getTasks().register("first").get();
+            project.getTasks().register("second");
+        });
+
+        final List<ProfileRecord> records = service.getRecords();
+        assertEquals(1, records.size());
+        final ProfileRecord record = records.get(0);
+        assertEquals(project.getPath(), record.getProjectPath());
+        assertEquals("SomeApplier", record.getApplierName());
+        assertEquals("apply", record.getPhase());
+        assertEquals(1, record.getRealizedTasks());
+        assertTrue(record.getNanos() >= 0);
+    }
+
+    @Test
+    public void profileService_profile_WhenBlockThrows_StillRecords() {
+        final Project project = ProjectBuilder.builder().build();
+        final ProfileService service = ProfileService.register(project).get();
+
+        assertThrows(IllegalStateException.class, () -> service.profile(project, "SomeApplier", "apply", () -> {
+            throw new IllegalStateException("Problem.");
+        }));
+
+        assertEquals(1, service.getRecords().size());
+    }
+
+    @Test
+    public void profileService_profile_WhenNested_RecordsSelfCost() {
+        final Project project = ProjectBuilder.builder().build();
+        final ProfileService service = ProfileService.register(project).get();
+
+        service.profile(project, "Outer", "apply", () -> {
+            project.getTasks().register("outer").get();
+            service.profile(project, "Inner", "configure", () -> {
+                project.getTasks().register("inner").get();
+                sleep(20);
+            });
+        });
+
+        final List<ProfileRecord> records = service.getRecords();
+        assertEquals(2, records.size());
+        final ProfileRecord inner = records.get(0);
+        final ProfileRecord outer = records.get(1);
+        assertEquals("Inner", inner.getApplierName());
+        assertEquals("Outer", outer.getApplierName());
+        assertEquals(1, inner.getRealizedTasks());
+        assertEquals(1, outer.getRealizedTasks());
+        assertTrue(inner.getNanos() >= 20_000_000L, "Inner should hold the sleep.");
+        assertTrue(outer.getNanos() < inner.getNanos(), "Outer should not count the inner time again.");
+    }
+
+    @Test
+    public void profileTask_formatReport_ListsMostExpensiveFirst() {
+        final List<ProfileRecord> records = Arrays.asList(
+            new ProfileRecord(":a", "Cheap", "apply", 1_000_000, 1024, 0),
+            new ProfileRecord(":b", "Expensive", "apply", 9_000_000, -1, 3),
+            new ProfileRecord(":c", "Cheap", "apply", 2_000_000, 2048, 1));
+
+        final String report = ProfileTask.formatReport(records, 1);
+
+        assertTrue(report.contains("3 records"), report);
+        assertTrue(report.contains("Expensive apply :b"), report);
+        assertFalse(report.contains("Cheap apply"), report);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.SignatureCache.Key;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SignatureCacheTests {
+
+    @Test
+    public void signatureCache_WithNullDirectory_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new SignatureCache(null),
+            "Cache directory must be present.");
+    }
+
+    @Test
+    public void signatureCache_restore_WhenEmpty_Misses(@TempDir Path tempDir) {
+        final SignatureCache cache = new SignatureCache(tempDir.resolve("cache").toFile());
+
+        assertFalse(cache.restore(new Key("abc", KEY_DIGEST, KEY_ID, "asc"), tempDir.resolve("a.jar.asc").toFile()));
+    }
+
+    @Test
+    public void signatureCache_store_IsRestored(@TempDir Path tempDir) throws IOException {
+        final SignatureCache cache = new SignatureCache(tempDir.resolve("cache").toFile());
+        final File artifact = write(tempDir.resolve("a.jar"), "artifact");
+        final File signature = write(tempDir.resolve("a.jar.asc"), "signature");
+        final Key key = Key.of(artifact, KEY_DIGEST, KEY_ID, "asc");
+
+        cache.store(key, signature);
+        final File restored = tempDir.resolve("restored/a.jar.asc").toFile();
+
+        assertTrue(cache.restore(Key.of(artifact, KEY_DIGEST, KEY_ID, "asc"), restored));
+        assertEquals("signature", new String(Files.readAllBytes(restored.toPath()), UTF_8));
+    }
+
+    @Test
+    public void signatureCache_restore_MatchesWholeKey(@TempDir Path tempDir) throws IOException {
+        final SignatureCache cache = new SignatureCache(tempDir.resolve("cache").toFile());
+        final File artifact = write(tempDir.resolve("a.jar"), "artifact");
+        final File changed = write(tempDir.resolve("b.jar"), "changed");
+        final File signature = write(tempDir.resolve("a.jar.asc"), "signature");
+        cache.store(Key.of(artifact, KEY_DIGEST, KEY_ID, "asc"), signature);
+        final File restored = tempDir.resolve("restored.asc").toFile();
+
+        assertFalse(cache.restore(Key.of(changed, KEY_DIGEST, KEY_ID, "asc"), restored));
+        assertFalse(cache.restore(Key.of(artifact, KEY_DIGEST, "01234567", "asc"), restored));
+        assertFalse(cache.restore(Key.of(artifact, OTHER_KEY_DIGEST, KEY_ID, "asc"), restored),
+            "Another key with a colliding key id should not reuse the signature.");
+        assertFalse(cache.restore(Key.of(artifact, KEY_DIGEST, KEY_ID, "sig"), restored));
+    }
+
+    @Test
+    public void signatureCache_Stats_CountsHitsAndMisses() {
+        final SignatureCache.Stats stats = new SignatureCache.Stats();
+
+        stats.record(true);
+        stats.record(false);
+        stats.record(true);
+
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals("2 cache hits, 1 cache misses", stats.toString());
+    }
+
+    private static File write(Path path, String text) throws IOException {
+        return Files.write(path, text.getBytes(UTF_8)).toFile();
+    }
+
+    /**
+     * The 32-bit key id Gradle signatories report, 8 uppercase hex digits
+     */
+    private static final String KEY_ID = "89ABCDEF";
+    private static final String KEY_DIGEST = SigningService.digestKey("first key");
+    private static final String OTHER_KEY_DIGEST = SigningService.digestKey("second key");
+}
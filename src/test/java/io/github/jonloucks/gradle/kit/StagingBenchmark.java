@@ -0,0 +1,97 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.BundleWriter.Entry;
+import io.github.jonloucks.gradle.kit.StagingSyncTask.SyncReport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares staging plus tar bundling with copies against hard links and zero-copy transfers
+ * on a synthetic published repository, 2048 MiB by default.
+ * The size can be changed with the 'kit.benchmark.staging.size' system property, in MiB.
+ */
+@Tag("benchmark")
+public final class StagingBenchmark {
+
+    @Test
+    public void benchmark_Staging(@TempDir Path tempDir) throws Exception {
+        final long sizeMib = Long.parseLong(System.getProperty("kit.benchmark.staging.size", "2048").trim());
+        final Path published = tempDir.resolve("staging-publish");
+        createPublishedTree(published, sizeMib * 1024 * 1024);
+
+        final long copyLength = measure("copy", published, tempDir.resolve("copy"), false);
+        final long zeroCopyLength = measure("zero-copy", published, tempDir.resolve("zero-copy"), true);
+
+        assertEquals(copyLength, zeroCopyLength, "Bundles must be the same size.");
+    }
+
+    private static long measure(String mode, Path published, Path directory, boolean zeroCopy) throws IOException {
+        final Path staging = directory.resolve("staging-deploy");
+        final File bundleFile = directory.resolve("bundle.tar").toFile();
+        final SyncReport report = new SyncReport();
+
+        final long syncStart = System.nanoTime();
+        StagingSyncTask.syncAll(published, staging, listPublications(published), zeroCopy, report);
+        final long syncNanos = System.nanoTime() - syncStart;
+
+        final long bundleStart = System.nanoTime();
+        BundleWriter.write(BundleFormat.TAR, listEntries(staging), bundleFile, zeroCopy);
+        final long bundleNanos = System.nanoTime() - bundleStart;
+
+        System.out.printf("Staging %-9s staged %,15d bytes in %8.1f ms, bundled %,15d bytes in %8.1f ms, " +
+                "%,15d bytes written%n",
+            mode, report.getWrittenBytes(), syncNanos / 1e6, bundleFile.length(), bundleNanos / 1e6,
+            report.getWrittenBytes() + bundleFile.length());
+        return bundleFile.length();
+    }
+
+    private static List<Entry> listEntries(Path staging) throws IOException {
+        try (Stream<Path> paths = Files.walk(staging)) {
+            return paths.filter(Files::isRegularFile)
+                .map(path -> new Entry(staging.relativize(path).toString().replace(File.separatorChar, '/'), path.toFile()))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> listPublications(Path published) throws IOException {
+        try (Stream<Path> modules = Files.list(published.resolve("io/github/example"))) {
+            return modules.map(module -> "io/github/example/" + module.getFileName() + "/1.0.0")
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void createPublishedTree(Path published, long totalSize) throws IOException {
+        final Random random = new Random(42);
+        final byte[] block = new byte[1024 * 1024];
+        random.nextBytes(block);
+        int files = 0;
+        long written = 0;
+        for (int module = 0; written < totalSize; module++) {
+            final String name = String.format("module-%04d", module);
+            final Path file = published.resolve("io/github/example/" + name + "/1.0.0/" + name + "-1.0.0.jar");
+            Files.createDirectories(file.getParent());
+            final long size = Math.min(totalSize - written, 16L * block.length);
+            try (OutputStream outputStream = Files.newOutputStream(file)) {
+                for (long remaining = size; remaining > 0; remaining -= block.length) {
+                    outputStream.write(block, 0, (int) Math.min(remaining, block.length));
+                }
+            }
+            files++;
+            written += size;
+        }
+        System.out.printf("Staging published %,d files, %,d bytes%n", files, written);
+    }
+}
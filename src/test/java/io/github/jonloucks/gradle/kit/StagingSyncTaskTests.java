@@ -0,0 +1,181 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.StagingSyncTask.SyncReport;
+import org.gradle.api.file.FileType;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class StagingSyncTaskTests {
+    
+    @Test
+    public void syncAll_CopiesChangesAndPrunesStale(@TempDir Path tempDir) throws IOException {
+        final Path published = tempDir.resolve("staging-publish");
+        final Path staging = tempDir.resolve("staging-deploy");
+        write(published, "io/github/library/1.0.0/library-1.0.0.jar", "same");
+        write(published, "io/github/library/1.0.0/library-1.0.0.pom", "new");
+        write(published, "io/github/library/0.9.0/library-0.9.0.jar", "stale");
+        write(staging, "io/github/library/1.0.0/library-1.0.0.jar", "same");
+        write(staging, "io/github/library/1.0.0/library-1.0.0.pom", "old");
+        write(staging, "io/github/library/0.9.0/library-0.9.0.jar", "stale");
+        final Path unchanged = staging.resolve("io/github/library/1.0.0/library-1.0.0.jar");
+        final FileTime unchangedTime = FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(unchanged, unchangedTime);
+        final SyncReport report = new SyncReport();
+        
+        StagingSyncTask.syncAll(published, staging, PUBLICATIONS, false, report);
+        
+        assertEquals("new", read(staging, "io/github/library/1.0.0/library-1.0.0.pom"));
+        assertEquals(unchangedTime, Files.getLastModifiedTime(unchanged), "Unchanged artifact should not be copied.");
+        assertFalse(Files.exists(staging.resolve("io/github/library/0.9.0")), "Stale version should be pruned.");
+        assertEquals(3, report.getWrittenBytes());
+        assertEquals(5, report.getPrunedBytes());
+        assertEquals("copied 1 of 2 files (3 bytes written, 0 files hard linked), pruned 1 stale files (5 bytes)",
+            report.toString());
+    }
+    
+    @Test
+    public void syncChanges_CopiesChangedAndPrunesRemoved(@TempDir Path tempDir) throws IOException {
+        final Path published = tempDir.resolve("staging-publish");
+        final Path staging = tempDir.resolve("staging-deploy");
+        write(published, "io/github/library/1.0.1/library-1.0.1.jar", "modified");
+        write(published, "io/github/library/1.0.1/library-1.0.1.pom", "added");
+        write(staging, "io/github/library/1.0.1/library-1.0.1.jar", "original");
+        write(staging, "io/github/library/1.0.1/library-1.0.1.module", "unchanged");
+        write(staging, "io/github/library/1.0.0/library-1.0.0.jar", "removed");
+        final List<FileChange> changes = Arrays.asList(
+            change(published, "io/github/library/1.0.1", ChangeType.MODIFIED, FileType.DIRECTORY),
+            change(published, "io/github/library/1.0.1/library-1.0.1.jar", ChangeType.MODIFIED, FileType.FILE),
+            change(published, "io/github/library/1.0.1/library-1.0.1.pom", ChangeType.ADDED, FileType.FILE),
+            change(published, "io/github/library/1.0.0/library-1.0.0.jar", ChangeType.REMOVED, FileType.MISSING));
+        final SyncReport report = new SyncReport();
+        
+        StagingSyncTask.syncChanges(changes, staging, Collections.singletonList("io/github/library/1.0.1"),
+            false, report);
+        
+        assertEquals("modified", read(staging, "io/github/library/1.0.1/library-1.0.1.jar"));
+        assertEquals("added", read(staging, "io/github/library/1.0.1/library-1.0.1.pom"));
+        assertEquals("unchanged", read(staging, "io/github/library/1.0.1/library-1.0.1.module"),
+            "Unreported artifact should be kept.");
+        assertFalse(Files.exists(staging.resolve("io/github/library/1.0.0")), "Removed version should be pruned.");
+        assertEquals(8 + 5, report.getWrittenBytes());
+        assertEquals(7, report.getPrunedBytes());
+    }
+    
+    @Test
+    public void syncAll_WithoutPublications_PrunesAll(@TempDir Path tempDir) throws IOException {
+        final Path staging = tempDir.resolve("staging-deploy");
+        write(staging, "io/github/library/0.9.0/library-0.9.0.jar", "stale");
+        
+        StagingSyncTask.syncAll(tempDir.resolve("missing"), staging, PUBLICATIONS, true, new SyncReport());
+        
+        assertFalse(Files.exists(staging.resolve("io")), "Stale artifacts should be pruned.");
+    }
+    
+    @Test
+    public void syncAll_WithHardLinks_DoesNotWriteContent(@TempDir Path tempDir) throws IOException {
+        final Path published = tempDir.resolve("staging-publish");
+        final Path staging = tempDir.resolve("staging-deploy");
+        write(published, "io/github/library/1.0.0/library-1.0.0.jar", "content");
+        final SyncReport report = new SyncReport();
+        
+        StagingSyncTask.syncAll(published, staging, PUBLICATIONS, true, report);
+        
+        final Path source = published.resolve("io/github/library/1.0.0/library-1.0.0.jar");
+        final Path target = staging.resolve("io/github/library/1.0.0/library-1.0.0.jar");
+        assertEquals("content", read(staging, "io/github/library/1.0.0/library-1.0.0.jar"));
+        if (Files.isSameFile(source, target)) {
+            assertEquals(0, report.getWrittenBytes());
+        } else {
+            assertEquals(7, report.getWrittenBytes());
+        }
+    }
+    
+    @Test
+    public void syncChanges_SkipsArtifactsOfEarlierPublications(@TempDir Path tempDir) throws IOException {
+        final Path published = tempDir.resolve("staging-publish");
+        final Path staging = tempDir.resolve("staging-deploy");
+        write(published, "io/github/library/1.0.0/library-1.0.0.jar", "current");
+        write(published, "io/github/library/0.9.0/library-0.9.0.jar", "stale");
+        write(published, "io/github/library/maven-metadata.xml", "metadata");
+        final List<FileChange> changes = Arrays.asList(
+            change(published, "io/github/library/1.0.0/library-1.0.0.jar", ChangeType.ADDED, FileType.FILE),
+            change(published, "io/github/library/0.9.0/library-0.9.0.jar", ChangeType.MODIFIED, FileType.FILE),
+            change(published, "io/github/library/maven-metadata.xml", ChangeType.MODIFIED, FileType.FILE));
+        
+        StagingSyncTask.syncChanges(changes, staging, PUBLICATIONS, false, new SyncReport());
+        
+        assertEquals("current", read(staging, "io/github/library/1.0.0/library-1.0.0.jar"));
+        assertEquals("metadata", read(staging, "io/github/library/maven-metadata.xml"));
+        assertFalse(Files.exists(staging.resolve("io/github/library/0.9.0")), "Earlier version should be skipped.");
+    }
+    
+    @Test
+    public void isPublished_Works() {
+        assertTrue(StagingSyncTask.isPublished(Paths.get("io/github/library/1.0.0/library-1.0.0.jar"), PUBLICATIONS));
+        assertTrue(StagingSyncTask.isPublished(Paths.get("io/github/library/maven-metadata.xml.sha1"), PUBLICATIONS));
+        assertFalse(StagingSyncTask.isPublished(Paths.get("io/github/library/0.9.0/library-0.9.0.jar"), PUBLICATIONS));
+        assertFalse(StagingSyncTask.isPublished(Paths.get("io/github/other/1.0.0/other-1.0.0.jar"), PUBLICATIONS));
+    }
+    
+    @Test
+    public void isSameContent_Works(@TempDir Path tempDir) throws IOException {
+        write(tempDir, "a", "content");
+        write(tempDir, "b", "content");
+        write(tempDir, "c", "contend");
+        
+        assertTrue(StagingSyncTask.isSameContent(tempDir.resolve("a"), tempDir.resolve("b")));
+        assertFalse(StagingSyncTask.isSameContent(tempDir.resolve("a"), tempDir.resolve("c")));
+        assertFalse(StagingSyncTask.isSameContent(tempDir.resolve("a"), tempDir.resolve("missing")));
+    }
+    
+    private static final List<String> PUBLICATIONS = Collections.singletonList("io/github/library/1.0.0");
+    
+    private static FileChange change(Path directory, String path, ChangeType changeType, FileType fileType) {
+        return new FileChange() {
+            @Override
+            public File getFile() {
+                return directory.resolve(path).toFile();
+            }
+            
+            @Override
+            public ChangeType getChangeType() {
+                return changeType;
+            }
+            
+            @Override
+            public FileType getFileType() {
+                return fileType;
+            }
+            
+            @Override
+            public String getNormalizedPath() {
+                return path;
+            }
+        };
+    }
+    
+    private static void write(Path directory, String path, String content) throws IOException {
+        final Path file = directory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(UTF_8));
+    }
+    
+    private static String read(Path directory, String path) throws IOException {
+        return new String(Files.readAllBytes(directory.resolve(path)), UTF_8);
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.UploadBundleImpl.UploadMetrics;
+import io.github.jonloucks.variants.api.Environment;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uploads against a local MockWebServer standing in for KIT_OSSRH_URL
+ */
+public final class UploadBundleImplTests {
+    
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = UploadService.createClient();
+    }
+    
+    @AfterEach
+    public void afterEach() throws Exception {
+        server.shutdown();
+    }
+    
+    @Test
+    public void uploadService_createClient_LeavesRetriesToUpload() {
+        assertFalse(client.retryOnConnectionFailure(), "A failed POST must not be sent again by the client.");
+    }
+
+    @Test
+    public void upload_WithSuccess_ReportsMetrics(@TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201).setBody("deployment-id"));
+        final File bundleFile = createBundleFile(tempDir);
+        
+        final UploadMetrics metrics = createUpload(bundleFile).upload();
+        
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("Bearer " + Internal.base64Encode("user:password"), request.getHeader("Authorization"));
+        assertTrue(request.getBodySize() > bundleFile.length(), "Multipart body must contain the bundle.");
+        assertEquals(1, metrics.getAttempts());
+        assertEquals(bundleFile.length(), metrics.getBytes());
+        assertTrue(metrics.getLatencyNanos() > 0, "Latency must be measured.");
+    }
+    
+    @Test
+    public void upload_WithTransientFailures_Retries(@TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        
+        final UploadMetrics metrics = createUpload(createBundleFile(tempDir)).upload();
+        
+        assertEquals(3, server.getRequestCount());
+        assertEquals(3, metrics.getAttempts());
+    }
+    
+    @Test
+    public void upload_WithPersistentTransientFailures_Throws(@TempDir Path tempDir) throws Exception {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        final UploadBundleImpl upload = createUpload(createBundleFile(tempDir));
+        
+        assertThrows(GradleException.class, upload::upload);
+        assertEquals(MAX_ATTEMPTS, server.getRequestCount());
+    }
+    
+    @Test
+    public void upload_WithRetryAfter_WaitsRequestedDelay(@TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        final long start = System.nanoTime();
+        
+        final UploadMetrics metrics = createUpload(createBundleFile(tempDir)).upload();
+        
+        assertEquals(2, metrics.getAttempts());
+        assertTrue(System.nanoTime() - start >= 1_000_000_000L, "Retry-After should be honored.");
+    }
+    
+    @Test
+    public void upload_WithLongRetryAfter_Throws(@TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "3600"));
+        final UploadBundleImpl upload = createUpload(createBundleFile(tempDir));
+        
+        assertThrows(GradleException.class, upload::upload);
+        assertEquals(1, server.getRequestCount());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {408, 502, 504})
+    public void upload_WithGatewayFailure_DoesNotRetry(int code, @TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(code));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        final UploadBundleImpl upload = createUpload(createBundleFile(tempDir));
+        
+        assertThrows(GradleException.class, upload::upload);
+        assertEquals(1, server.getRequestCount(), "The bundle may already be accepted.");
+    }
+    
+    @Test
+    public void getRetryAfterMillis_Works() {
+        assertEquals(7, UploadBundleImpl.getRetryAfterMillis(null, 7));
+        assertEquals(7, UploadBundleImpl.getRetryAfterMillis("soon", 7));
+        assertEquals(2_000, UploadBundleImpl.getRetryAfterMillis(" 2 ", 7));
+        assertEquals(0, UploadBundleImpl.getRetryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT", 7));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {400, 401, 500})
+    public void upload_WithNonRetryableFailure_DoesNotRetry(int code, @TempDir Path tempDir) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(code));
+        final UploadBundleImpl upload = createUpload(createBundleFile(tempDir));
+        
+        assertThrows(GradleException.class, upload::upload);
+        assertEquals(1, server.getRequestCount());
+    }
+    
+    @Test
+    public void upload_WithNullClient_Throws(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        
+        assertThrown(IllegalArgumentException.class,
+            () -> new UploadBundleImpl(createEnvironment(b -> {}), "x", bundleFile, null, MAX_ATTEMPTS, 1),
+            "Client must be present.");
+    }
+    
+    @Test
+    public void upload_WithNullEnvironment_Throws(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        
+        assertThrown(IllegalArgumentException.class,
+            () -> new UploadBundleImpl(null, "x", bundleFile, client, MAX_ATTEMPTS, 1),
+            "Environment must be present.");
+    }
+    
+    @Test
+    public void upload_WithNullBundleName_Throws(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        
+        assertThrown(IllegalArgumentException.class,
+            () -> new UploadBundleImpl(createEnvironment(b -> {}), null, bundleFile, client, MAX_ATTEMPTS, 1),
+            "Bundle name must be present.");
+    }
+    
+    @Test
+    public void upload_WithNullBundleFile_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new UploadBundleImpl(createEnvironment(b -> {}), "x", null, client, MAX_ATTEMPTS, 1),
+            "Bundle file must be present.");
+    }
+    
+    @Test
+    public void upload_WithBundleFileDoesNotExist_Throws(@TempDir Path tempDir) {
+        final UploadBundleImpl upload = createUpload(tempDir.resolve("missing.zip").toFile());
+        
+        assertThrown(GradleException.class, upload::upload);
+        assertEquals(0, server.getRequestCount());
+    }
+    
+    @Test
+    public void upload_WithMissingAuthorName_Throws(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        final Environment environment = createEnvironment(b -> b.addMapSource(
+            Collections.singletonMap("kit.ossrh.password", "dry-run")));
+        final UploadBundleImpl upload = new UploadBundleImpl(environment, "x", bundleFile, client, MAX_ATTEMPTS, 1);
+        
+        assertThrown(GradleException.class, upload::upload, "Author username must be present.");
+    }
+    
+    @Test
+    public void upload_WithMissingAuthorPassword_Throws(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        final Environment environment = createEnvironment(b -> b.addMapSource(
+            Collections.singletonMap("kit.ossrh.username", "dry-run")));
+        final UploadBundleImpl upload = new UploadBundleImpl(environment, "x", bundleFile, client, MAX_ATTEMPTS, 1);
+        
+        assertThrown(GradleException.class, upload::upload, "Author password must be present.");
+    }
+    
+    @Test
+    public void upload_WithDryRun_DoesNotSend(@TempDir Path tempDir) throws Exception {
+        final File bundleFile = createBundleFile(tempDir);
+        final Map<String, String> map = new HashMap<>();
+        map.put("kit.ossrh.url", server.url("/api/v1/publisher/upload").toString());
+        map.put("kit.ossrh.username", "dry-run");
+        map.put("kit.ossrh.password", "dry-run");
+        final Environment environment = createEnvironment(b -> b.addMapSource(map));
+        
+        final UploadMetrics metrics = new UploadBundleImpl(environment, "x", bundleFile, client, MAX_ATTEMPTS, 1)
+            .upload();
+        
+        assertEquals(0, metrics.getAttempts());
+        assertEquals(0, server.getRequestCount());
+    }
+    
+    private UploadBundleImpl createUpload(File bundleFile) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("kit.ossrh.url", server.url("/api/v1/publisher/upload").toString());
+        map.put("kit.ossrh.username", "user");
+        map.put("kit.ossrh.password", "password");
+        final Environment environment = createEnvironment(b -> b.addMapSource(map));
+        return new UploadBundleImpl(environment, "bundle", bundleFile, client, MAX_ATTEMPTS, 1);
+    }
+    
+    private static File createBundleFile(Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("bundle.tar");
+        Files.write(path, new byte[64 * 1024]);
+        return path.toFile();
+    }
+    
+    private static final int MAX_ATTEMPTS = 3;
+    
+    private MockWebServer server;
+    private OkHttpClient client;
+}
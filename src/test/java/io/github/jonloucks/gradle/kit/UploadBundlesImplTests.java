@@ -0,0 +1,114 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.UploadBundlesImpl.Outcome;
+import io.github.jonloucks.variants.api.Environment;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent uploads against a local MockWebServer standing in for KIT_OSSRH_URL
+ */
+public final class UploadBundlesImplTests {
+    
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = UploadService.createClient();
+    }
+    
+    @AfterEach
+    public void afterEach() throws Exception {
+        server.shutdown();
+    }
+    
+    @Test
+    public void upload_WithSuccess_UploadsAllBundles(@TempDir Path tempDir) throws Exception {
+        final List<File> bundleFiles = createBundleFiles(tempDir, 5);
+        for (int i = 0; i < bundleFiles.size(); i++) {
+            server.enqueue(new MockResponse().setResponseCode(201));
+        }
+        
+        final List<Outcome> outcomes = createUpload(bundleFiles, 3).upload();
+        
+        assertEquals(bundleFiles.size(), server.getRequestCount());
+        assertEquals(bundleFiles.size(), outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            assertEquals(bundleFiles.get(i), outcomes.get(i).getBundleFile());
+            assertTrue(outcomes.get(i).isSuccess(), "Upload should succeed.");
+        }
+        assertDoesNotThrow(() -> UploadBundlesImpl.checkOutcomes(outcomes));
+    }
+    
+    @Test
+    public void upload_WithOneFailure_UploadsOthersAndFails(@TempDir Path tempDir) throws Exception {
+        final List<File> bundleFiles = createBundleFiles(tempDir, 3);
+        server.enqueue(new MockResponse().setResponseCode(201));
+        server.enqueue(new MockResponse().setResponseCode(400));
+        server.enqueue(new MockResponse().setResponseCode(201));
+        
+        final List<Outcome> outcomes = createUpload(bundleFiles, 1).upload();
+        
+        assertEquals(3, server.getRequestCount());
+        assertTrue(outcomes.get(0).isSuccess(), "First upload should succeed.");
+        assertFalse(outcomes.get(1).isSuccess(), "Second upload should fail.");
+        assertTrue(outcomes.get(2).isSuccess(), "Third upload should succeed.");
+        assertThrown(GradleException.class,
+            () -> UploadBundlesImpl.checkOutcomes(outcomes),
+            "Unable to upload 1 of 3 bundles.");
+    }
+    
+    @Test
+    public void upload_WithNoBundles_Works() {
+        assertTrue(createUpload(Collections.emptyList(), 2).upload().isEmpty());
+        assertEquals(0, server.getRequestCount());
+    }
+    
+    @Test
+    public void upload_WithInvalidParallelism_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> createUpload(Collections.emptyList(), 0),
+            "Parallelism must be positive.");
+    }
+    
+    private UploadBundlesImpl createUpload(List<File> bundleFiles, int parallelism) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("kit.ossrh.url", server.url("/api/v1/publisher/upload").toString());
+        map.put("kit.ossrh.username", "user");
+        map.put("kit.ossrh.password", "password");
+        final Environment environment = createEnvironment(b -> b.addMapSource(map));
+        return new UploadBundlesImpl(environment, "bundle", bundleFiles, client, parallelism, 1);
+    }
+    
+    private static List<File> createBundleFiles(Path tempDir, int count) throws Exception {
+        final List<File> bundleFiles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Path path = tempDir.resolve("bundle-" + (i + 1) + ".tar");
+            Files.write(path, new byte[16 * 1024]);
+            bundleFiles.add(path.toFile());
+        }
+        return bundleFiles;
+    }
+    
+    private MockWebServer server;
+    private OkHttpClient client;
+}
@@ -0,0 +1,69 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.gradle.kit.UploadLedger.Key;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class UploadLedgerTests {
+
+    @Test
+    public void uploadLedger_WithNullFile_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new UploadLedger(null),
+            "Ledger file must be present.");
+    }
+
+    @Test
+    public void uploadLedger_WithoutFile_FindsNothing(@TempDir Path tempDir) {
+        final UploadLedger ledger = new UploadLedger(tempDir.resolve("missing.txt").toFile());
+
+        assertFalse(ledger.findAccepted(new Key("abc", URL, "io.github:1.0.0")).isPresent());
+    }
+
+    @Test
+    public void uploadLedger_recordAccepted_IsFound(@TempDir Path tempDir) {
+        final File ledgerFile = tempDir.resolve("kit/upload-ledger.txt").toFile();
+        final Key key = new Key("abc", URL, "io.github:1.0.0");
+
+        new UploadLedger(ledgerFile).recordAccepted(key);
+
+        assertTrue(new UploadLedger(ledgerFile).findAccepted(key).isPresent(), "Accepted upload should be found.");
+    }
+
+    @Test
+    public void uploadLedger_findAccepted_MatchesWholeKey(@TempDir Path tempDir) {
+        final UploadLedger ledger = new UploadLedger(tempDir.resolve("upload-ledger.txt").toFile());
+        ledger.recordAccepted(new Key("abc", URL, "io.github:1.0.0"));
+
+        assertFalse(ledger.findAccepted(new Key("abd", URL, "io.github:1.0.0")).isPresent());
+        assertFalse(ledger.findAccepted(new Key("abc", URL + "/other", "io.github:1.0.0")).isPresent());
+        assertFalse(ledger.findAccepted(new Key("abc", URL, "io.github:1.0.1")).isPresent());
+    }
+
+    @Test
+    public void uploadLedger_Key_of_HashesBundle(@TempDir Path tempDir) throws Exception {
+        final Path bundle = tempDir.resolve("bundle.tar");
+        Files.write(bundle, "abc".getBytes(UTF_8));
+
+        final Key key = Key.of(bundle.toFile(), URL, "io.github:1.0.0");
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", key.getSha256());
+    }
+
+    @Test
+    public void uploadLedger_Key_WithNullSha256_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> new Key(null, URL, "io.github:1.0.0"),
+            "SHA-256 must be present.");
+    }
+
+    private static final String URL = "https://publisher.example.com/upload";
+}
@@ -0,0 +1,98 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Variant;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.jonloucks.gradle.kit.Configs.*;
+import static io.github.jonloucks.variants.api.GlobalVariants.createEnvironment;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the variant lookups done while configuring a multi-module build,
+ * one Environment per applier versus the build scoped VariantsService.
+ */
+@Tag("benchmark")
+public final class VariantsServiceBenchmark {
+
+    @Test
+    public void benchmark_ConfigurationVariantLookups() {
+        final List<Project> projects = createProjects();
+
+        // warm up both paths before measuring
+        perApplierEnvironments(projects);
+        sharedService(projects);
+
+        final long perApplierNanos = perApplierEnvironments(projects);
+        final long sharedNanos = sharedService(projects);
+
+        System.out.printf("Variant lookups for %d projects x %d appliers: per applier %.2f ms, shared service %.2f ms%n",
+            PROJECT_COUNT, APPLIER_COUNT, perApplierNanos / 1e6, sharedNanos / 1e6);
+
+        assertTrue(sharedNanos > 0 && perApplierNanos > 0, "Benchmark must measure elapsed time.");
+    }
+
+    private static long perApplierEnvironments(List<Project> projects) {
+        final long start = System.nanoTime();
+        for (Project project : projects) {
+            for (int applier = 0; applier < APPLIER_COUNT; applier++) {
+                final Environment environment = createEnvironment(b -> b //
+                    .addSystemEnvironmentSource() //
+                    .addSource(key -> projectEnvironmentVariable(project, key)) //
+                    .addSystemPropertiesSource() //
+                    .addSource(key -> projectProperty(project, key)) //
+                );
+                for (Variant<?> variant : VARIANTS) {
+                    environment.findVariance(variant);
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long sharedService(List<Project> projects) {
+        final long start = System.nanoTime();
+        for (Project project : projects) {
+            final VariantsService service = VariantsService.register(project).get();
+            for (int applier = 0; applier < APPLIER_COUNT; applier++) {
+                final Environment environment = service.getEnvironment(project);
+                for (Variant<?> variant : VARIANTS) {
+                    environment.findVariance(variant);
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<Project> createProjects() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final List<Project> projects = new ArrayList<>();
+        projects.add(rootProject);
+        for (int i = 1; i < PROJECT_COUNT; i++) {
+            projects.add(ProjectBuilder.builder().withParent(rootProject).withName("module-" + i).build());
+        }
+        return projects;
+    }
+
+    private static Optional<CharSequence> projectProperty(Project project, String key) {
+        return Optional.ofNullable(project.findProperty(key)).map(Object::toString);
+    }
+
+    private static Optional<CharSequence> projectEnvironmentVariable(Project project, String key) {
+        return Optional.ofNullable(project.getProviders().environmentVariable(key).getOrNull());
+    }
+
+    private static final int PROJECT_COUNT = 400;
+    private static final int APPLIER_COUNT = 6;
+    private static final Variant<?>[] VARIANTS = {
+        KIT_LOG_ENABLED, KIT_JAVA_COMPILER_VERSION, KIT_JAVA_SOURCE_VERSION, KIT_JAVA_TARGET_VERSION,
+        KIT_JAVA_TEST_SOURCE_VERSION, KIT_JAVA_TEST_TARGET_VERSION, KIT_INCLUDE_TAGS, KIT_EXCLUDE_TAGS
+    };
+}
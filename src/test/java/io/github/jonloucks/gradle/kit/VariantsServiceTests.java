@@ -0,0 +1,124 @@
+package io.github.jonloucks.gradle.kit;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Variant;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.variants.api.GlobalVariants.createVariant;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class VariantsServiceTests {
+
+    @Test
+    public void variantsService_register_WithNullProject_Throws() {
+        assertThrown(IllegalArgumentException.class,
+            () -> VariantsService.register(null),
+            "Project must be present.");
+    }
+
+    @Test
+    public void variantsService_register_IsSharedByBuild() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+
+        assertSame(VariantsService.register(rootProject).get(), VariantsService.register(project).get());
+    }
+
+    @Test
+    public void variantsService_getEnvironment_WithNullProject_Throws() {
+        final VariantsService service = VariantsService.register(ProjectBuilder.builder().build()).get();
+
+        assertThrown(IllegalArgumentException.class,
+            () -> service.getEnvironment(null),
+            "Project must be present.");
+    }
+
+    @Test
+    public void variantsService_getEnvironment_ReadsProjectPropertiesLazily() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        final VariantsService service = VariantsService.register(project).get();
+        final Environment environment = service.getEnvironment(project);
+        final String key = UUID.randomUUID().toString();
+        final Variant<String> variant = createTestVariant(key);
+
+        project.getExtensions().getExtraProperties().set(key, "first");
+        rootProject.getExtensions().getExtraProperties().set(key, "root");
+
+        assertEquals(Optional.of("first"), environment.findVariance(variant));
+        project.getExtensions().getExtraProperties().set(key, "second");
+        assertEquals(Optional.of("second"), environment.findVariance(variant));
+        assertEquals(Optional.of("root"), service.getEnvironment(rootProject).findVariance(variant));
+    }
+
+    @Test
+    public void variantsService_getEnvironment_IsSharedByProject() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        final VariantsService service = VariantsService.register(project).get();
+
+        assertSame(service.getEnvironment(project), service.getEnvironment(project));
+        assertNotSame(service.getEnvironment(rootProject), service.getEnvironment(project));
+    }
+
+    @Test
+    public void variantsService_findBuildVariance_IgnoresProjectProperties() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        final VariantsService service = VariantsService.register(project).get();
+
+        project.getExtensions().getExtraProperties().set("kit.coverage.per.module", "true");
+
+        assertEquals(Optional.of(false), service.findBuildVariance(project, Configs.KIT_COVERAGE_PER_MODULE));
+        assertEquals(Optional.of(false), service.findBuildVariance(rootProject, Configs.KIT_COVERAGE_PER_MODULE));
+        assertTrue(service.getEnvironment(project).getVariance(Configs.KIT_COVERAGE_PER_MODULE));
+    }
+
+    @Test
+    public void variantsService_findBuildVariance_WithProjectVariant_Throws() {
+        final Project project = ProjectBuilder.builder().build();
+        final VariantsService service = VariantsService.register(project).get();
+
+        assertThrown(IllegalArgumentException.class,
+            () -> service.findBuildVariance(project, Configs.KIT_GPG_SECRET_KEY),
+            "Variant must be build wide.");
+    }
+
+    @Test
+    public void variantsService_findVariance_SystemPropertyPrecedesProjectProperty() {
+        final Project project = ProjectBuilder.builder().build();
+        final VariantsService service = VariantsService.register(project).get();
+        final String key = UUID.randomUUID().toString();
+        final Variant<String> variant = createTestVariant(key);
+
+        project.getExtensions().getExtraProperties().set(key, "project");
+        System.setProperty(key, "system");
+        try {
+            assertEquals("system", service.getEnvironment(project).getVariance(variant));
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    public void variantsService_getVariance_WithFallback_Works() {
+        final Project project = ProjectBuilder.builder().build();
+        final VariantsService service = VariantsService.register(project).get();
+
+        assertFalse(service.getEnvironment(project).getVariance(Configs.KIT_LOG_ENABLED));
+    }
+
+    private static Variant<String> createTestVariant(String key) {
+        return createVariant((b, p) -> b //
+            .name("Test variant " + key) //
+            .keys(key) //
+            .of(p.ofString()) //
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.jonloucks.gradle.kit.test;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.util.GradleVersion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.jonloucks.gradle.kit.test.Constants.*;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the configuration overhead of each kit plugin on synthetic builds.
+ * Module counts default to 10, 100 and 1000 and can be changed with the 'kit.benchmark.modules' system property.
+ * The builds run in a separate daemon, so the used heap is the heap of the daemon after a full GC.
+ * Results are written to build/benchmarks/configuration.json so they can be compared across commits.
+ */
+@Tag("benchmark")
+public final class ConfigurationBenchmark {
+
+    @Test
+    public void benchmark_Configuration() throws Exception {
+        final Path initScript = deployInitScript();
+        final List<Measurement> measurements = new ArrayList<>();
+
+        measure(initScript, 1, JAVA_KIT); // warm up class loading before measuring
+
+        for (int moduleCount : getModuleCounts()) {
+            for (String[] plugins : PLUGIN_SETS) {
+                final Measurement measurement = measure(initScript, moduleCount, plugins);
+                System.out.println("Benchmark " + measurement.toJson());
+                measurements.add(measurement);
+            }
+        }
+
+        final Path results = writeResults(measurements);
+
+        assertFalse(measurements.isEmpty(), "Measurements must be present.");
+        assertTrue(Files.exists(results), "Results must be written.");
+    }
+
+    private static Measurement measure(Path initScript, int moduleCount, String ... plugins) {
+        final long start = System.nanoTime();
+        final BuildResult result = new KitGradleRunner()
+            .withSeparateDaemon()
+            .withPlugins(plugins)
+            .withModules(moduleCount)
+            .withEnvironment(singletonMap("gradle.kit.log.enabled", "false"))
+            .withPluginClasspath()
+            .withArguments("--init-script", initScript.toAbsolutePath().toString(), "help")
+            .build();
+        final long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        final Matcher matcher = RESULT_PATTERN.matcher(result.getOutput());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Benchmark result not found in build output.");
+        }
+        return new Measurement(String.join(",", plugins), moduleCount, wallMillis,
+            Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3)));
+    }
+
+    private static int[] getModuleCounts() {
+        final String[] counts = System.getProperty("kit.benchmark.modules", "10,100,1000").split(",");
+        final int[] moduleCounts = new int[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            moduleCounts[i] = Integer.parseInt(counts[i].trim());
+        }
+        return moduleCounts;
+    }
+
+    private static Path deployInitScript() throws IOException {
+        Files.createDirectories(RESULTS_PATH);
+        final Path initScript = RESULTS_PATH.resolve("configuration-benchmark.init.gradle");
+        writeString(initScript,
+            "def started = System.nanoTime()\n" +
+            "def realized = new java.util.concurrent.atomic.AtomicLong()\n" +
+            "gradle.beforeProject { project ->\n" +
+            "    project.tasks.configureEach { realized.incrementAndGet() }\n" +
+            "}\n" +
+            "gradle.taskGraph.whenReady {\n" +
+            "    def elapsed = (System.nanoTime() - started).intdiv(1000000)\n" +
+            "    def runtime = Runtime.runtime\n" +
+            "    runtime.gc()\n" +
+            "    def used = runtime.totalMemory() - runtime.freeMemory()\n" +
+            "    println \"KIT_BENCHMARK configurationMillis=${elapsed} realizedTasks=${realized.get()} usedHeapBytes=${used}\"\n" +
+            "}\n");
+        return initScript;
+    }
+
+    private static Path writeResults(List<Measurement> measurements) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("{\n");
+        builder.append("  \"commit\": \"").append(getCommit()).append("\",\n");
+        builder.append("  \"gradleVersion\": \"").append(GradleVersion.current().getVersion()).append("\",\n");
+        builder.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+        builder.append("  \"timestamp\": \"").append(Instant.now()).append("\",\n");
+        builder.append("  \"measurements\": [\n");
+        for (int i = 0; i < measurements.size(); i++) {
+            builder.append("    ").append(measurements.get(i).toJson());
+            builder.append(i + 1 < measurements.size() ? ",\n" : "\n");
+        }
+        builder.append("  ]\n");
+        builder.append("}\n");
+
+        final Path results = RESULTS_PATH.resolve("configuration.json");
+        writeString(results, builder.toString());
+        return results;
+    }
+
+    private static String getCommit() {
+        final String commit = System.getProperty("kit.benchmark.commit", System.getenv("GITHUB_SHA"));
+        if (null != commit && !commit.isEmpty()) {
+            return commit;
+        }
+        try {
+            final Process process = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            try (InputStream inputStream = process.getInputStream()) {
+                final String output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+                if (process.waitFor() == 0 && !output.isEmpty()) {
+                    return output;
+                }
+            }
+        } catch (IOException ignored) {
+            // git is optional, fall through to unknown
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    private static void writeString(Path path, String string) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write(string);
+        }
+    }
+
+    private static final class Measurement {
+        private Measurement(String plugins, int modules, long wallMillis, long configurationMillis,
+                            long realizedTasks, long usedHeapBytes) {
+            this.plugins = plugins;
+            this.modules = modules;
+            this.wallMillis = wallMillis;
+            this.configurationMillis = configurationMillis;
+            this.realizedTasks = realizedTasks;
+            this.usedHeapBytes = usedHeapBytes;
+        }
+
+        private String toJson() {
+            return "{\"plugins\": \"" + plugins + "\", \"modules\": " + modules +
+                ", \"wallMillis\": " + wallMillis + ", \"configurationMillis\": " + configurationMillis +
+                ", \"realizedTasks\": " + realizedTasks + ", \"usedHeapBytes\": " + usedHeapBytes + "}";
+        }
+
+        private final String plugins;
+        private final int modules;
+        private final long wallMillis;
+        private final long configurationMillis;
+        private final long realizedTasks;
+        private final long usedHeapBytes;
+    }
+
+    private static final Path RESULTS_PATH = Paths.get("build/benchmarks");
+    private static final Pattern RESULT_PATTERN =
+        Pattern.compile("KIT_BENCHMARK configurationMillis=(\\d+) realizedTasks=(\\d+) usedHeapBytes=(\\d+)");
+    private static final String[][] PLUGIN_SETS = {
+        {JAVA_KIT},
+        {JAVA_LIBRARY_KIT},
+        {JAVA_LIBRARY_KIT, MAVEN_PUBLISH_KIT},
+        {JAVA_LIBRARY_KIT, SIGNING_KIT}
+    };
+}
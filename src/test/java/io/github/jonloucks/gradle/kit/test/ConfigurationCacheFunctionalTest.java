@@ -0,0 +1,68 @@
+package io.github.jonloucks.gradle.kit.test;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.jonloucks.gradle.kit.test.Constants.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("functionalTest")
+public class ConfigurationCacheFunctionalTest {
+
+    @Test
+    public void run_JavaKit_ReusesConfigurationCache() {
+        final List<BuildResult> results = new KitGradleRunner()
+            .withPlugins(JAVA_KIT)
+            .forwardOutput()
+            .withPluginClasspath()
+            .withArguments(withConfigurationCache("build"))
+            .buildRepeatedly(2);
+        
+        assertReused(results, "Applying java plugin...");
+    }
+    
+    @Test
+    public void run_AllKits_ReusesConfigurationCache() {
+        final Map<String,String> environment = new HashMap<>();
+        environment.put("kit.ossrh.username", "dry-run");
+        environment.put("kit.ossrh.password", "dry-run");
+        
+        final List<BuildResult> results = new KitGradleRunner()
+            .withPlugins(JAVA_LIBRARY_KIT, MAVEN_PUBLISH_KIT, SIGNING_KIT)
+            .withEnvironment(environment)
+            .forwardOutput()
+            .withPluginClasspath()
+            .withArguments(withConfigurationCache("build", "publish", "createPublisherBundle", "uploadPublisherBundle"))
+            .buildRepeatedly(2);
+        
+        assertReused(results, "Applying maven-publish plugin...");
+    }
+    
+    private static String[] withConfigurationCache(String ... tasks) {
+        final String[] arguments = new String[tasks.length + 2];
+        arguments[0] = "--configuration-cache";
+        arguments[1] = "-Dorg.gradle.configuration-cache.problems=fail";
+        System.arraycopy(tasks, 0, arguments, 2, tasks.length);
+        return arguments;
+    }
+    
+    private static void assertReused(List<BuildResult> results, String configurationOutput) {
+        assertEquals(2, results.size());
+        
+        final String first = results.get(0).getOutput();
+        final String second = results.get(1).getOutput();
+        
+        assertThat(first, containsString(configurationOutput));
+        assertThat(first, containsString("Configuration cache entry stored"));
+        assertThat(second, containsString("Configuration cache entry reused"));
+        assertThat(second, not(containsString(configurationOutput)));
+    }
+}
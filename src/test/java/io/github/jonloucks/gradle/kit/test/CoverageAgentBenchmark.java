@@ -0,0 +1,141 @@
+package io.github.jonloucks.gradle.kit.test;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.jonloucks.gradle.kit.test.Constants.JAVA_KIT;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the test time and execution data size with an unscoped JaCoCo agent and with an agent
+ * scoped to the classes of the module, as 'auto' derives it from the main source packages.
+ * The synthetic build has its sources in the default package, so the scope is given explicitly.
+ * Runs per scope default to 3 and can be changed with the 'kit.benchmark.runs' system property.
+ * Results are written to build/benchmarks/coverage-agent.json.
+ */
+@Tag("benchmark")
+public final class CoverageAgentBenchmark {
+
+    @Test
+    public void benchmark_CoverageAgent() throws Exception {
+        final Path initScript = deployInitScript();
+        final List<Measurement> measurements = new ArrayList<>();
+
+        measure(initScript, UNSCOPED); // warm up the daemon and dependency resolution before measuring
+
+        final int runs = Integer.parseInt(System.getProperty("kit.benchmark.runs", "3").trim());
+        for (int run = 0; run < runs; run++) {
+            for (String includes : new String[]{UNSCOPED, SCOPED}) {
+                final Measurement measurement = measure(initScript, includes);
+                System.out.println("Benchmark " + measurement.toJson());
+                measurements.add(measurement);
+            }
+        }
+
+        final Path results = writeResults(measurements);
+
+        assertFalse(measurements.isEmpty(), "Measurements must be present.");
+        assertTrue(Files.exists(results), "Results must be written.");
+    }
+
+    private static Measurement measure(Path initScript, String includes) {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("gradle.kit.log.enabled", "false");
+        environment.put("kit.coverage.agent.includes", includes);
+        final BuildResult result = new KitGradleRunner()
+            .withPlugins(JAVA_KIT)
+            .withEnvironment(environment)
+            .withPluginClasspath()
+            .withArguments("--init-script", initScript.toAbsolutePath().toString(), "test")
+            .build();
+
+        final Matcher matcher = RESULT_PATTERN.matcher(result.getOutput());
+        long testMillis = 0;
+        long execBytes = 0;
+        while (matcher.find()) {
+            testMillis += Long.parseLong(matcher.group(1));
+            execBytes += Long.parseLong(matcher.group(2));
+        }
+        if (0 == execBytes) {
+            throw new IllegalStateException("Benchmark result not found in build output.");
+        }
+        return new Measurement(includes, testMillis, execBytes);
+    }
+
+    private static Path deployInitScript() throws IOException {
+        Files.createDirectories(RESULTS_PATH);
+        final Path initScript = RESULTS_PATH.resolve("coverage-agent-benchmark.init.gradle");
+        writeString(initScript,
+            "allprojects {\n" +
+            "    tasks.withType(Test).configureEach { test ->\n" +
+            "        def started = new java.util.concurrent.atomic.AtomicLong()\n" +
+            "        def execFile = test.extensions.getByName('jacoco').destinationFile\n" +
+            "        test.doFirst { started.set(System.nanoTime()) }\n" +
+            "        test.doLast {\n" +
+            "            def elapsed = (System.nanoTime() - started.get()).intdiv(1000000)\n" +
+            "            println \"KIT_BENCHMARK testMillis=${elapsed} execBytes=${execFile.length()}\"\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n");
+        return initScript;
+    }
+
+    private static Path writeResults(List<Measurement> measurements) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("{\n");
+        builder.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+        builder.append("  \"measurements\": [\n");
+        for (int i = 0; i < measurements.size(); i++) {
+            builder.append("    ").append(measurements.get(i).toJson());
+            builder.append(i + 1 < measurements.size() ? ",\n" : "\n");
+        }
+        builder.append("  ]\n");
+        builder.append("}\n");
+
+        final Path results = RESULTS_PATH.resolve("coverage-agent.json");
+        writeString(results, builder.toString());
+        return results;
+    }
+
+    private static void writeString(Path path, String string) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write(string);
+        }
+    }
+
+    private static final class Measurement {
+        private Measurement(String includes, long testMillis, long execBytes) {
+            this.includes = includes;
+            this.testMillis = testMillis;
+            this.execBytes = execBytes;
+        }
+
+        private String toJson() {
+            return "{\"includes\": \"" + includes + "\", \"testMillis\": " + testMillis +
+                ", \"execBytes\": " + execBytes + "}";
+        }
+
+        private final String includes;
+        private final long testMillis;
+        private final long execBytes;
+    }
+
+    private static final String UNSCOPED = "*";
+    private static final String SCOPED = "SomeImpl*";
+    private static final Path RESULTS_PATH = Paths.get("build/benchmarks");
+    private static final Pattern RESULT_PATTERN = Pattern.compile("KIT_BENCHMARK testMillis=(\\d+) execBytes=(\\d+)");
+}
@@ -4,11 +4,15 @@ import com.github.spotbugs.snom.SpotBugsExtension;
 import com.github.spotbugs.snom.SpotBugsTask;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.jvm.toolchain.JavaLanguageVersion;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.gradle.testing.jacoco.plugins.JacocoPluginExtension;
+import org.gradle.testing.jacoco.plugins.JacocoTaskExtension;
 import org.gradle.testing.jacoco.tasks.JacocoCoverageVerification;
 import org.gradle.testing.jacoco.tasks.JacocoReport;
 import org.junit.jupiter.api.Tag;
@@ -16,6 +20,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 import static io.github.jonloucks.contracts.test.Tools.assertObject;
@@ -42,8 +53,7 @@ public abstract class JavaPluginTestBase {
         
         final JavaPluginExtension javaPlugin = project.getExtensions().getByType(JavaPluginExtension.class);
         
-        assertThat(javaPlugin.getSourceCompatibility(), equalTo(JavaVersion.toVersion("9")));
-        assertThat(javaPlugin.getTargetCompatibility(), equalTo(JavaVersion.toVersion("9")));
+        assertCompatibility(project, JavaVersion.toVersion("9"), JavaVersion.toVersion("9"));
         assertThat(javaPlugin.getToolchain().getLanguageVersion().get(), equalTo(JavaLanguageVersion.of(17)));
 
         for (JavaCompile javaCompile : project.getTasks().withType(JavaCompile.class)) {
@@ -63,8 +73,7 @@ public abstract class JavaPluginTestBase {
         
         final JavaPluginExtension javaPlugin = project.getExtensions().getByType(JavaPluginExtension.class);
         
-        assertThat(javaPlugin.getSourceCompatibility(), equalTo(JavaVersion.toVersion("9")));
-        assertThat(javaPlugin.getTargetCompatibility(), equalTo(JavaVersion.toVersion("9")));
+        assertCompatibility(project, JavaVersion.toVersion("9"), JavaVersion.toVersion("9"));
         assertThat(javaPlugin.getToolchain().getLanguageVersion().get(), equalTo(JavaLanguageVersion.of(17)));
         
         for (JavaCompile javaCompile : project.getTasks().withType(JavaCompile.class)) {
@@ -90,8 +99,8 @@ public abstract class JavaPluginTestBase {
         
         final JavaPluginExtension javaPlugin = project.getExtensions().getByType(JavaPluginExtension.class);
         
-        assertThat(javaPlugin.getSourceCompatibility(), equalTo(JavaVersion.toVersion(JAVA_SOURCE_VERSION.toString())));
-        assertThat(javaPlugin.getTargetCompatibility(), equalTo(JavaVersion.toVersion(JAVA_TARGET_VERSION.toString())));
+        assertCompatibility(project, JavaVersion.toVersion(JAVA_SOURCE_VERSION.toString()),
+            JavaVersion.toVersion(JAVA_TARGET_VERSION.toString()));
         assertThat(javaPlugin.getToolchain().getLanguageVersion().get(), equalTo(JAVA_COMPILER_VERSION));
 
         for (JavaCompile javaCompile : project.getTasks().withType(JavaCompile.class)) {
@@ -118,8 +127,8 @@ public abstract class JavaPluginTestBase {
         
         final JavaPluginExtension javaPlugin = project.getExtensions().getByType(JavaPluginExtension.class);
         
-        assertThat(javaPlugin.getSourceCompatibility(), equalTo(JavaVersion.toVersion(JAVA_TEST_SOURCE_VERSION.toString())));
-        assertThat(javaPlugin.getTargetCompatibility(), equalTo(JavaVersion.toVersion(JAVA_TEST_TARGET_VERSION.toString())));
+        assertCompatibility(project, JavaVersion.toVersion(JAVA_TEST_SOURCE_VERSION.toString()),
+            JavaVersion.toVersion(JAVA_TEST_TARGET_VERSION.toString()));
         assertThat(javaPlugin.getToolchain().getLanguageVersion().get(), equalTo(JAVA_COMPILER_VERSION));
     }
     
@@ -157,6 +166,220 @@ public abstract class JavaPluginTestBase {
         assertObject(verify);
     }
     
+    @ParameterizedTest
+    @ValueSource(strings = {"kitCoverageDataElements", "kitCoverageClassesElements", "kitCoverageSourcesElements"})
+    public void plugin_Jacoco_WithModuleProject_PublishesCoverageElements(String configurationName) {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        project.getPlugins().apply(pluginName);
+        project.evaluationDependsOn(":");
+        
+        final Configuration configuration = project.getConfigurations().getByName(configurationName);
+        
+        assertTrue(configuration.isCanBeConsumed(), "Coverage elements should be consumable.");
+        assertFalse(configuration.isCanBeResolved(), "Coverage elements should not be resolvable.");
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithTestModuleProject_DoesNotPublishCoverageElements() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module-test").build();
+        project.getPlugins().apply(pluginName);
+        project.evaluationDependsOn(":");
+        
+        assertNull(project.getConfigurations().findByName("kitCoverageDataElements"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_RegistersCoverageReport() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        final Task coverageReport = rootProject.getTasks().getByName("kitCoverageReport");
+        
+        assertFalse(coverageReport.getOutputs().getFiles().isEmpty(), "Coverage report should have outputs.");
+        assertNull(project.getTasks().findByName("kitCoverageReport"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_RegistersCoverageSummary() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        final Task coverageSummary = rootProject.getTasks().getByName("kitCoverageSummary");
+        
+        assertEquals(2, coverageSummary.getOutputs().getFiles().getFiles().size());
+        for (File output : coverageSummary.getOutputs().getFiles()) {
+            assertFalse(output.getName().endsWith(".html"), "Coverage summary should not render HTML.");
+        }
+        assertNull(project.getTasks().findByName("kitCoverageSummary"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_RegistersCoverageVerification() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        final Task coverageReport = rootProject.getTasks().getByName("kitCoverageReport");
+        final Task coverageVerification = rootProject.getTasks().getByName("kitCoverageVerification");
+        
+        assertFalse(coverageVerification.getOutputs().getFiles().isEmpty(), "Coverage verification should have outputs.");
+        for (File output : coverageVerification.getOutputs().getFiles()) {
+            assertFalse(coverageReport.getOutputs().getFiles().contains(output), "Outputs should not overlap.");
+        }
+        assertNull(project.getTasks().findByName("kitCoverageVerification"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_RegistersDiffCoverageVerification() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        final Task diffCoverage = rootProject.getTasks().getByName("kitDiffCoverageVerification");
+        
+        assertFalse(diffCoverage.getTaskDependencies().getDependencies(diffCoverage).isEmpty(),
+            "Changed lines coverage should depend on the tests.");
+        assertNull(project.getTasks().findByName("kitDiffCoverageVerification"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithModuleProject_ScopesAgentToPackages() throws Exception {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        final Path source = project.getProjectDir().toPath().resolve("src/main/java/io/github/sample/Sample.java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, "package io.github.sample; class Sample {}".getBytes(StandardCharsets.UTF_8));
+        project.getPlugins().apply(pluginName);
+        project.evaluationDependsOn(":sub-module");
+        
+        final JacocoTaskExtension agent = project.getTasks().named("test", org.gradle.api.tasks.testing.Test.class).get()
+            .getExtensions().getByType(JacocoTaskExtension.class);
+        
+        assertEquals(Collections.singletonList("io.github.sample.*"), agent.getIncludes());
+        assertFalse(agent.getExcludes().isEmpty(), "Generated classes should be excluded.");
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithModuleProject_ScansSourcesWhenAgentIsRead() throws Exception {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        project.getPlugins().apply(pluginName);
+        project.evaluationDependsOn(":sub-module");
+        final JacocoTaskExtension agent = project.getTasks().named("test", org.gradle.api.tasks.testing.Test.class).get()
+            .getExtensions().getByType(JacocoTaskExtension.class);
+        
+        final Path source = project.getProjectDir().toPath().resolve("src/main/java/io/github/later/Later.java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, "package io.github.later; class Later {}".getBytes(StandardCharsets.UTF_8));
+        
+        assertEquals(Collections.singletonList("io.github.later.*"), agent.getIncludes());
+    }
+    
+    @Test
+    public void plugin_Jacoco_PerModule_VerifiesEachModule() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getExtensions().getExtraProperties().set("KIT_COVERAGE_PER_MODULE", "true");
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        project.evaluationDependsOn(":sub-module");
+        
+        final JacocoCoverageVerification moduleVerification = project.getTasks()
+            .named("jacocoTestCoverageVerification", JacocoCoverageVerification.class).get();
+        final JacocoCoverageVerification rootVerification = rootProject.getTasks()
+            .named("jacocoTestCoverageVerification", JacocoCoverageVerification.class).get();
+        
+        assertTrue(moduleVerification.getEnabled(), "Module verification should be enabled.");
+        assertEquals(5, moduleVerification.getViolationRules().getRules().size());
+        assertFalse(moduleVerification.getOutputs().getFiles().isEmpty(), "Module verification should leave a record.");
+        assertTrue(rootVerification.getAdditionalClassDirs().isEmpty(), "Root verification should not aggregate.");
+        assertNotNull(rootProject.getTasks().findByName("kitCoverageVerificationSummary"));
+        assertNotNull(project.getConfigurations().findByName("kitCoverageVerificationElements"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_PerModule_VerifiesAllTestingTasks() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getExtensions().getExtraProperties().set("KIT_COVERAGE_PER_MODULE", "true");
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        project.evaluationDependsOn(":sub-module");
+        
+        final JacocoCoverageVerification moduleVerification = project.getTasks()
+            .named("jacocoTestCoverageVerification", JacocoCoverageVerification.class).get();
+        final Task integrationTest = project.getTasks().named("integrationTest").get();
+        final File integrationData = integrationTest.getExtensions().getByType(JacocoTaskExtension.class)
+            .getDestinationFile();
+        
+        assertTrue(moduleVerification.getExecutionData().getFiles().contains(integrationData),
+            "Module verification should include integration test data.");
+        assertTrue(moduleVerification.getTaskDependencies().getDependencies(moduleVerification)
+            .contains(integrationTest), "Module verification should run after integration tests.");
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithoutPerModule_HasNoVerificationSummary() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        rootProject.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        assertNull(rootProject.getTasks().findByName("kitCoverageVerificationSummary"));
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_AggregatesCoverageElements() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        rootProject.getPlugins().apply(pluginName);
+        rootProject.evaluationDependsOn(":");
+        
+        rootProject.getTasks().named("jacocoTestReport", JacocoReport.class).get();
+        final Configuration aggregation = rootProject.getConfigurations().getByName("kitCoverageDataAggregation");
+        
+        assertTrue(aggregation.isCanBeResolved(), "Coverage aggregation should be resolvable.");
+        assertFalse(aggregation.getExtendsFrom().isEmpty(), "Coverage aggregation should have dependencies.");
+    }
+    
+    @Test
+    public void plugin_Jacoco_WithRootProject_ResolvesModuleCoverageFiles() throws Exception {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        ProjectBuilder.builder().withParent(rootProject).withName("sub-docs").build();
+        rootProject.getPlugins().apply(pluginName);
+        project.getPlugins().apply(pluginName);
+        final File extraSources = project.file("src/extra/java");
+        project.getExtensions().getByType(SourceSetContainer.class).getByName("main").getJava().srcDir(extraSources);
+        final Path execFile = project.getLayout().getBuildDirectory().file("jacoco/test.exec").get().getAsFile().toPath();
+        Files.createDirectories(execFile.getParent());
+        Files.write(execFile, new byte[]{0x01});
+        rootProject.evaluationDependsOn(":");
+        project.evaluationDependsOn(":sub-module");
+        
+        final JacocoReport report = rootProject.getTasks().named("jacocoTestReport", JacocoReport.class).get();
+        
+        assertTrue(report.getExecutionData().getFiles().contains(execFile.toFile()),
+            "Module execution data should be aggregated.");
+        assertTrue(report.getAdditionalClassDirs().getFiles().contains(project.file("build/classes/java/main")),
+            "Module classes should be aggregated.");
+        assertTrue(report.getAdditionalSourceDirs().getFiles().contains(extraSources),
+            "Source directories added after the plugin should be aggregated.");
+    }
+    
     @Test
     @Tag("integration")
     public void plugin_SpotBugs_WithModuleProject() {
@@ -228,6 +451,35 @@ public abstract class JavaPluginTestBase {
         });
     }
     
+    @ParameterizedTest
+    @ValueSource(strings = {"integrationTest", "functionalTest", "jacocoTestReport", "jacocoTestCoverageVerification"})
+    public void plugin_Evaluation_DoesNotRealizeKitTasks(String taskName) {
+        final Project project = ProjectBuilder.builder().build();
+        final List<String> realized = new ArrayList<>();
+        project.getTasks().configureEach(task -> realized.add(task.getName()));
+        
+        project.getPlugins().apply(pluginName);
+        project.evaluationDependsOn(":");
+        
+        assertFalse(realized.contains(taskName), "Task should not be realized: " + taskName);
+        assertDoesNotThrow(() -> project.getTasks().named(taskName));
+    }
+    
+    @Test
+    public void plugin_WithRootProject_RegistersKitProfile() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPlugins().apply(pluginName);
+        
+        assertDoesNotThrow(() -> project.getTasks().named("kitProfile"));
+    }
+    
+    private static void assertCompatibility(Project project, JavaVersion source, JavaVersion target) {
+        for (JavaCompile javaCompile : project.getTasks().withType(JavaCompile.class)) {
+            assertThat(JavaVersion.toVersion(javaCompile.getSourceCompatibility()), equalTo(source));
+            assertThat(JavaVersion.toVersion(javaCompile.getTargetCompatibility()), equalTo(target));
+        }
+    }
+    
     private final String pluginName;
     
     private static final JavaLanguageVersion JAVA_SOURCE_VERSION = JavaLanguageVersion.of(8);
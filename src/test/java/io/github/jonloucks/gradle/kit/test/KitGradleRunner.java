@@ -5,7 +5,9 @@ import org.gradle.testkit.runner.internal.DefaultGradleRunner;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -19,12 +21,38 @@ final class KitGradleRunner extends DefaultGradleRunner {
         return this;
     }
     
+    /**
+     * Deploys a synthetic build with the given count of modules instead of the default modules.
+     */
+    public KitGradleRunner withModules(int count) {
+        this.modules = ProjectDeployer.moduleNames(count);
+        return this;
+    }
+    
     @Override
     public KitGradleRunner withEnvironment(Map<String, String> map) {
         overrideMap.putAll(map);
         return this;
     }
     
+    @Override
+    public KitGradleRunner withArguments(String... arguments) {
+        super.withArguments(arguments);
+        return this;
+    }
+    
+    @Override
+    public KitGradleRunner withPluginClasspath() {
+        super.withPluginClasspath();
+        return this;
+    }
+    
+    @Override
+    public KitGradleRunner forwardOutput() {
+        super.forwardOutput();
+        return this;
+    }
+    
     @Override
     public BuildResult build() {
         return withDeploy(super::build);
@@ -40,6 +68,20 @@ final class KitGradleRunner extends DefaultGradleRunner {
         return withDeploy(super::run);
     }
     
+    /**
+     * Runs the build several times against the same deployed project,
+     * used to verify state that is reused across builds.
+     */
+    List<BuildResult> buildRepeatedly(int times) {
+        return withDeploy(() -> {
+            final List<BuildResult> results = new ArrayList<>();
+            for (int i = 0; i < times; i++) {
+                results.add(super.build());
+            }
+            return results;
+        });
+    }
+    
     @Override
     public KitGradleRunner withDebug(boolean enabled) {
         if (enabled) {
@@ -49,6 +91,16 @@ final class KitGradleRunner extends DefaultGradleRunner {
         throw new UnsupportedOperationException("Debug mode is required.");
     }
     
+    /**
+     * Runs the build in a separate daemon instead of the test JVM, so measurements of the daemon are not
+     * mixed with the test JVM. The environment is passed to the daemon as system property arguments.
+     */
+    KitGradleRunner withSeparateDaemon() {
+        super.withDebug(false);
+        separateDaemon = true;
+        return this;
+    }
+    
     @Override
     public KitGradleRunner withProjectDir(File dir){
         throw new UnsupportedOperationException("withProjectDir not supported.");
@@ -59,10 +111,19 @@ final class KitGradleRunner extends DefaultGradleRunner {
         withEnvironment(singletonMap("gradle.kit.log.enabled", "true")); // some tests rely on output for verification
     }
     
-    private BuildResult withDeploy(Supplier<BuildResult> supplier) {
+    private <T> T withDeploy(Supplier<T> supplier) {
         final Map<String,String> previous = new HashMap<>();
-        overrideMap.forEach((k, v) -> previous.put(k, setSystemProperty(k, v)));
-        final Path projectDir = ProjectDeployer.deploy(plugins);
+        if (separateDaemon) {
+            final List<String> arguments = new ArrayList<>();
+            overrideMap.forEach((k, v) -> arguments.add("-D" + k + "=" + v));
+            arguments.addAll(getArguments());
+            super.withArguments(arguments);
+        } else {
+            overrideMap.forEach((k, v) -> previous.put(k, setSystemProperty(k, v)));
+        }
+        final Path projectDir = ofNullable(modules).isPresent()
+            ? ProjectDeployer.deploy(modules, plugins)
+            : ProjectDeployer.deploy(plugins);
         super.withProjectDir(projectDir.toFile());
         try {
             return supplier.get();
@@ -82,4 +143,6 @@ final class KitGradleRunner extends DefaultGradleRunner {
     
     private final Map<String,String> overrideMap = new HashMap<>();
     private String[] plugins;
+    private List<String> modules;
+    private boolean separateDaemon;
 }
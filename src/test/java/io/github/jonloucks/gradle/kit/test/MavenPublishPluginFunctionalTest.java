@@ -2,17 +2,22 @@ package io.github.jonloucks.gradle.kit.test;
 
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.github.jonloucks.gradle.kit.test.Constants.JAVA_LIBRARY_KIT;
 import static io.github.jonloucks.gradle.kit.test.Constants.MAVEN_PUBLISH_KIT;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @Tag("functionalTest")
@@ -39,6 +44,20 @@ public class MavenPublishPluginFunctionalTest {
         assertThat(output, not(containsString("Applying signing plugin...")));
     }
     
+    @Test
+    public void run_StagingChecksums_RerunWorks() {
+        final List<BuildResult> results = new KitGradleRunner()
+            .withPlugins(JAVA_LIBRARY_KIT, MAVEN_PUBLISH_KIT)
+            .withPluginClasspath()
+            .withArguments("createStagingChecksums")
+            .buildRepeatedly(2);
+        
+        assertEquals(TaskOutcome.SUCCESS, results.get(0).task(":library-api:createStagingChecksums").getOutcome());
+        // staged maven-metadata.xml carries a lastUpdated timestamp, so the rerun may process it incrementally
+        assertThat(results.get(1).task(":library-api:createStagingChecksums").getOutcome(),
+            either(equalTo(TaskOutcome.UP_TO_DATE)).or(equalTo(TaskOutcome.SUCCESS)));
+    }
+    
     @Test
     public void run_WithBadCredentials_Works() {
         final Map<String,String> environment = new HashMap<>();
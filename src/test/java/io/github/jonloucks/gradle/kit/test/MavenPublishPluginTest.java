@@ -1,13 +1,18 @@
 package io.github.jonloucks.gradle.kit.test;
 
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.api.tasks.bundling.Zip;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
 
 import io.github.jonloucks.gradle.kit.MavenPublishPlugin;
 import static io.github.jonloucks.gradle.kit.test.Constants.MAVEN_PUBLISH_KIT;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.*;
 
 public final class MavenPublishPluginTest {
     
@@ -28,4 +33,86 @@ public final class MavenPublishPluginTest {
             project.getTasks().withType(Zip.class).forEach(task -> {});
         });
     }
+    
+    @Test
+    public void plugin_WithModuleProject_PublishesStagingElements() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.evaluationDependsOn(":");
+        
+        final Configuration configuration = project.getConfigurations().getByName("kitStagingRepositoryElements");
+        
+        assertTrue(configuration.isCanBeConsumed(), "Staging elements should be consumable.");
+        assertFalse(configuration.isCanBeResolved(), "Staging elements should not be resolvable.");
+    }
+    
+    @Test
+    public void plugin_WithModuleProject_RegistersStagingChecksums() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.evaluationDependsOn(":");
+        
+        assertDoesNotThrow(() -> project.getTasks().named("createStagingChecksums"));
+        assertTrue(project.getConfigurations().getNames().contains("kitStagingChecksumsElements"),
+            "Staging checksums elements should be present.");
+    }
+    
+    @Test
+    public void plugin_WithModuleProject_RegistersStagingSync() {
+        final Project rootProject = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withParent(rootProject).withName("sub-module").build();
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.evaluationDependsOn(":");
+        
+        assertDoesNotThrow(() -> project.getTasks().named("syncStagingRepository"));
+        assertFalse(project.getTasks().getNames().contains("cleanStagingPublish"),
+            "Staging publications should be published in place.");
+    }
+    
+    @Test
+    public void plugin_StagingPublish_IsFinalizedBySync() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPlugins().apply("java");
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.getExtensions().getByType(PublishingExtension.class).getPublications()
+            .create("maven", MavenPublication.class,
+                publication -> publication.from(project.getComponents().getByName("java")));
+        project.evaluationDependsOn(":");
+        
+        final Task publish = project.getTasks().named("publishMavenPublicationToLocalMavenWithChecksumsRepository").get();
+        
+        assertTrue(publish.getFinalizedBy().getDependencies(publish)
+            .contains(project.getTasks().named("syncStagingRepository").get()), "Staging publish should sync.");
+    }
+    
+    @Test
+    public void plugin_WithRootProject_RegistersPublisherBundleTasks() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.evaluationDependsOn(":");
+        
+        assertDoesNotThrow(() -> {
+            project.getTasks().named("createPublisherBundle");
+            project.getTasks().named("createPublisherBundles");
+            project.getTasks().named("uploadPublisherBundle");
+        });
+    }
+    
+    @Test
+    public void plugin_WithRootProject_ReadsCredentialsWhenUploading() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getPlugins().apply(MAVEN_PUBLISH_KIT);
+        project.evaluationDependsOn(":");
+        final Task task = project.getTasks().named("uploadPublisherBundle").get();
+        final String key = "kit.ossrh.username";
+        
+        System.setProperty(key, "late-user");
+        try {
+            assertEquals("late-user", ((Provider<?>) task.property("username")).get());
+        } finally {
+            System.clearProperty(key);
+        }
+    }
 }
@@ -4,6 +4,9 @@ import java.io.IOException;
 import java.io.Writer;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static java.nio.file.Files.exists;
@@ -12,6 +15,13 @@ import static java.nio.file.Files.isDirectory;
 final class ProjectDeployer {
     
     static Path deploy(String ... plugins) {
+        return deploy(DEFAULT_MODULES, plugins);
+    }
+    
+    /**
+     * Deploys a synthetic build with a root project and the given modules, all applying the same plugins.
+     */
+    static Path deploy(List<String> modules, String ... plugins) {
         try {
             final Path deployPath = pristineProjectPath();
             
@@ -19,12 +29,11 @@ final class ProjectDeployer {
             deployJavaSource(deployPath);
             deployJavaTest(deployPath);
             
-            deployModule(deployPath, "library-api", plugins);
-            deployModule(deployPath, "library-test", plugins);
-            deployModule(deployPath, "library-impl", plugins);
-            deployModule(deployPath, "library-other", plugins);
+            for (String module : modules) {
+                deployModule(deployPath, module, plugins);
+            }
             
-            deploySettingsDotGradle(deployPath, "library-api", "library-test", "library-impl", "library-other");
+            deploySettingsDotGradle(deployPath, modules.toArray(new String[0]));
             
             return deployPath;
         } catch (RuntimeException thrown) {
@@ -34,6 +43,17 @@ final class ProjectDeployer {
         }
     }
     
+    /**
+     * @return the names of a synthetic build with the given count of modules
+     */
+    static List<String> moduleNames(int count) {
+        final List<String> modules = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            modules.add(String.format("module-%04d", i));
+        }
+        return modules;
+    }
+    
     private static void deployModule(Path rootPath, String moduleName, String ... plugins) throws Exception {
         final Path modulePath = rootPath.resolve(moduleName);
         Files.createDirectories(modulePath);
@@ -222,4 +242,7 @@ final class ProjectDeployer {
             writer.write(string);
         }
     }
+    
+    private static final List<String> DEFAULT_MODULES = Arrays.asList(
+        "library-api", "library-test", "library-impl", "library-other");
 }
@@ -1,12 +1,45 @@
 package io.github.jonloucks.gradle.kit.test;
 
 import io.github.jonloucks.gradle.kit.SigningPlugin;
+import org.bouncycastle.bcpg.ArmoredOutputStream;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.openpgp.PGPKeyPair;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPSecretKey;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.PGPSignatureList;
+import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.jcajce.JcaPGPObjectFactory;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
+import org.bouncycastle.openpgp.operator.jcajce.JcaPGPContentSignerBuilder;
+import org.bouncycastle.openpgp.operator.jcajce.JcaPGPContentVerifierBuilderProvider;
+import org.bouncycastle.openpgp.operator.jcajce.JcaPGPDigestCalculatorProviderBuilder;
+import org.bouncycastle.openpgp.operator.jcajce.JcaPGPKeyPair;
+import org.bouncycastle.openpgp.operator.jcajce.JcePBESecretKeyEncryptorBuilder;
+import org.gradle.api.Action;
+import org.gradle.api.Describable;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.plugins.signing.Sign;
+import org.gradle.plugins.signing.signatory.pgp.PgpSignatory;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
 import static io.github.jonloucks.gradle.kit.test.Constants.SIGNING_KIT;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
 
 public final class SigningPluginTest {
     
@@ -25,4 +58,110 @@ public final class SigningPluginTest {
             project.evaluationDependsOn(":");
         });
     }
+    
+    @Test
+    public void plugin_WithSecrets_KeepsTaskActions() {
+        final Project project = ProjectBuilder.builder().build();
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key", "ZHJ5LXJ1bg==");
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key.password", "dry-run");
+        
+        project.getPluginManager().apply(SIGNING_KIT);
+        project.getTasks().register("signFiles", Sign.class, sign -> {
+            sign.doFirst(task -> {});
+            sign.doLast(task -> {});
+        });
+        project.evaluationDependsOn(":");
+        
+        final Sign sign = (Sign) project.getTasks().getByName("signFiles");
+        assertEquals(3, sign.getActions().size());
+        for (Action<? super Task> action : sign.getActions()) {
+            assertNotEquals("Execute generate", ((Describable) action).getDisplayName());
+        }
+    }
+    
+    @Test
+    public void plugin_WithGeneratedKey_SignsFilesWithWorkers() throws Exception {
+        final Project project = ProjectBuilder.builder().build();
+        final PGPSecretKey secretKey = generateSecretKey("password");
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key", armor(secretKey));
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key.password", "password");
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final File file = new File(project.getProjectDir(), "artifact-" + i + ".jar");
+            Files.write(file.toPath(), ("artifact " + i).getBytes(UTF_8));
+            files.add(file);
+        }
+        
+        project.getPluginManager().apply(SIGNING_KIT);
+        project.getTasks().register("signFiles", Sign.class, sign -> sign.sign(files.toArray(new File[0])));
+        project.evaluationDependsOn(":");
+        final Sign sign = (Sign) project.getTasks().getByName("signFiles");
+        for (Action<? super Task> action : new ArrayList<>(sign.getActions())) {
+            action.execute(sign);
+        }
+        
+        for (File file : files) {
+            final File signatureFile = new File(file.getPath() + ".asc");
+            assertTrue(signatureFile.isFile(), "Signature should be written for " + file.getName() + ".");
+            assertTrue(verify(secretKey.getPublicKey(), file, signatureFile), "Signature should verify.");
+        }
+    }
+    
+    @Test
+    public void plugin_WithTaskSignatory_SignsWithTaskKey() throws Exception {
+        final Project project = ProjectBuilder.builder().build();
+        final PGPSecretKey kitKey = generateSecretKey("password");
+        final PGPSecretKey taskKey = generateSecretKey("other");
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key", armor(kitKey));
+        project.getExtensions().getExtraProperties().set("kit.ossrh.gpg.secret.key.password", "password");
+        final File file = new File(project.getProjectDir(), "artifact.jar");
+        Files.write(file.toPath(), "artifact".getBytes(UTF_8));
+        
+        project.getPluginManager().apply(SIGNING_KIT);
+        project.getTasks().register("signFiles", Sign.class, sign -> {
+            sign.setSignatory(new PgpSignatory("task", taskKey, "other"));
+            sign.sign(file);
+        });
+        project.evaluationDependsOn(":");
+        final Sign sign = (Sign) project.getTasks().getByName("signFiles");
+        for (Action<? super Task> action : new ArrayList<>(sign.getActions())) {
+            action.execute(sign);
+        }
+        
+        final File signatureFile = new File(file.getPath() + ".asc");
+        assertTrue(verify(taskKey.getPublicKey(), file, signatureFile), "Signature should use the task key.");
+        assertFalse(verify(kitKey.getPublicKey(), file, signatureFile), "Signature should not use the kit key.");
+    }
+    
+    private static PGPSecretKey generateSecretKey(String password) throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final PGPKeyPair keyPair = new JcaPGPKeyPair(PublicKeyAlgorithmTags.RSA_GENERAL, generator.generateKeyPair(),
+            new Date());
+        final PGPDigestCalculator sha1 = new JcaPGPDigestCalculatorProviderBuilder().build()
+            .get(HashAlgorithmTags.SHA1);
+        return new PGPSecretKey(PGPSignature.DEFAULT_CERTIFICATION, keyPair, "Kit Test <test@example.com>", sha1,
+            null, null,
+            new JcaPGPContentSignerBuilder(keyPair.getPublicKey().getAlgorithm(), HashAlgorithmTags.SHA256),
+            new JcePBESecretKeyEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_256, sha1)
+                .build(password.toCharArray()));
+    }
+    
+    private static String armor(PGPSecretKey secretKey) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ArmoredOutputStream armoredStream = new ArmoredOutputStream(outputStream)) {
+            secretKey.encode(armoredStream);
+        }
+        return outputStream.toString(UTF_8.name());
+    }
+    
+    private static boolean verify(PGPPublicKey publicKey, File file, File signatureFile) throws Exception {
+        try (InputStream inputStream = PGPUtil.getDecoderStream(Files.newInputStream(signatureFile.toPath()))) {
+            final PGPSignatureList signatures = (PGPSignatureList) new JcaPGPObjectFactory(inputStream).nextObject();
+            final PGPSignature signature = signatures.get(0);
+            signature.init(new JcaPGPContentVerifierBuilderProvider(), publicKey);
+            signature.update(Files.readAllBytes(file.toPath()));
+            return signature.verify();
+        }
+    }
 }